@@ -19,6 +19,7 @@ package com.jereztech.openapis;
 import java.util.List;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
@@ -48,10 +49,12 @@ public class WebMvcConfiguration implements WebMvcConfigurer {
 	}
 
 	/**
-	 * Customize the ObjectMapper.
+	 * Customize the ObjectMapper. Raw bytes are written as they are, for the
+	 * cached responses.
 	 */
 	@Override
 	public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.add(new ByteArrayHttpMessageConverter());
 		converters.add(new MappingJackson2HttpMessageConverter(objectMapper));
 		WebMvcConfigurer.super.configureMessageConverters(converters);
 	}
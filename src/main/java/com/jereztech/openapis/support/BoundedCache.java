@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.support;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread-safe cache bounded by the total weight of its values. The least
+ * recently used entries are evicted first when the budget is exceeded. The
+ * entries are kept in access order, so the eldest one is always at the head
+ * and each eviction takes constant time.
+ * 
+ * @author Joel Jerez
+ *
+ * @param <K> the Key Class
+ * @param <V> the Value Class
+ */
+public class BoundedCache<K, V> {
+
+	private final long maxWeight;
+	private final ToLongFunction<? super V> weigher;
+	private final LinkedHashMap<K, Weighted<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long weight;
+
+	public BoundedCache(long maxWeight, ToLongFunction<? super V> weigher) {
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+	}
+
+	public synchronized V get(K key) {
+		Weighted<V> entry = entries.get(key);
+		return entry != null ? entry.value : null;
+	}
+
+	/**
+	 * Returns the cached value or computes it outside the lock. Concurrent misses
+	 * for the same key may compute the value more than once, the last one wins.
+	 */
+	public V get(K key, Function<? super K, ? extends V> loader) {
+		V value = get(key);
+		if (value == null) {
+			value = loader.apply(key);
+			put(key, value);
+		}
+		return value;
+	}
+
+	public synchronized void put(K key, V value) {
+		long valueWeight = weigher.applyAsLong(value);
+		if (valueWeight > maxWeight) {
+			return;
+		}
+		Weighted<V> previous = entries.put(key, new Weighted<>(value, valueWeight));
+		if (previous != null) {
+			weight -= previous.weight;
+		}
+		weight += valueWeight;
+		evict();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Removes the least recently used entries until the budget is met.
+	 */
+	private void evict() {
+		Iterator<Weighted<V>> eldest = entries.values().iterator();
+		while (weight > maxWeight && eldest.hasNext()) {
+			weight -= eldest.next().weight;
+			eldest.remove();
+		}
+	}
+
+	private static class Weighted<V> {
+
+		private final V value;
+		private final long weight;
+
+		private Weighted(V value, long weight) {
+			this.value = value;
+			this.weight = weight;
+		}
+
+	}
+
+}
@@ -28,6 +28,7 @@ public interface Constants {
 	String PAGE_SIZE = "1000";
 	Integer PAGE_NUMBER_2 = 2;
 	Integer PAGE_SIZE_3 = 3;
+	String AUTOCOMPLETE_LIMIT = "10";
 
 	String EQ_SEPARATOR = " eq ";
 	String COMMA_SEPARATOR = ",";
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.support;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Computes short, URL-safe content hashes to identify versions of the data.
+ * 
+ * @author Joel Jerez
+ */
+public final class ContentHash {
+
+	private static final String ALGORITHM = "SHA-256";
+	private static final int LENGTH = 16;
+
+	private ContentHash() {
+	}
+
+	public static String of(Path file) throws IOException {
+		return of(Files.readAllBytes(file));
+	}
+
+	public static String of(String... parts) {
+		return of(String.join("\u0000", parts).getBytes(UTF_8));
+	}
+
+	/**
+	 * The hash as a positive number, for the versions that are served as
+	 * numbers. Equal contents get the same number on any node or restart.
+	 */
+	public static long toNumber(String hash) {
+		return ByteBuffer.wrap(Base64.getUrlDecoder().decode(hash)).getLong() & Long.MAX_VALUE;
+	}
+
+	public static String of(byte[] bytes) {
+		try {
+			byte[] digest = MessageDigest.getInstance(ALGORITHM).digest(bytes);
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, LENGTH));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.support;
+
+/**
+ * A count-min sketch that estimates how often keys were requested recently.
+ * Counters saturate at 15 and are halved periodically, so old popularity fades
+ * away. Not thread-safe, callers must synchronize.
+ * 
+ * @author Joel Jerez
+ */
+public class FrequencySketch {
+
+	private static final int[] SEEDS = { 0x97cb3127, 0xb4b82e0b, 0x8b1d3b11, 0x4f8a9d15 };
+	private static final int MAX_COUNT = 15;
+	private static final int RESET_FACTOR = 10;
+
+	private final int[][] table;
+	private final int mask;
+	private final int sampleSize;
+	private int additions;
+
+	public FrequencySketch(int width) {
+		int size = Integer.highestOneBit(Math.max(width, 16) - 1) << 1;
+		this.table = new int[SEEDS.length][size];
+		this.mask = size - 1;
+		this.sampleSize = RESET_FACTOR * size;
+	}
+
+	public void increment(Object key) {
+		int hash = key.hashCode();
+		boolean added = false;
+		for (int row = 0; row < SEEDS.length; row++) {
+			int index = index(hash, row);
+			if (table[row][index] < MAX_COUNT) {
+				table[row][index]++;
+				added = true;
+			}
+		}
+		if (added && ++additions == sampleSize) {
+			reset();
+		}
+	}
+
+	public int frequency(Object key) {
+		int hash = key.hashCode();
+		int frequency = MAX_COUNT;
+		for (int row = 0; row < SEEDS.length; row++) {
+			frequency = Math.min(frequency, table[row][index(hash, row)]);
+		}
+		return frequency;
+	}
+
+	private int index(int hash, int row) {
+		int mixed = (hash ^ SEEDS[row]) * SEEDS[row];
+		return (mixed ^ (mixed >>> 16)) & mask;
+	}
+
+	private void reset() {
+		for (int[] counters : table) {
+			for (int i = 0; i < counters.length; i++) {
+				counters[i] >>>= 1;
+			}
+		}
+		additions /= 2;
+	}
+
+}
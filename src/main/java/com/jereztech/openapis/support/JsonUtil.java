@@ -16,13 +16,24 @@
  ******************************************************************************/
 package com.jereztech.openapis.support;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.type.ArrayType;
 
 /**
  * A JSON processing tool.
@@ -34,16 +45,77 @@ public class JsonUtil {
 
 	private final ObjectMapper objectMapper;
 
+	/**
+	 * A copy of the mapper that interns the values it reads into the pool of
+	 * the read, if it has one.
+	 */
+	private final ObjectMapper poolingMapper;
+
 	public JsonUtil(ObjectMapper objectMapper) {
 		this.objectMapper = objectMapper;
+		this.poolingMapper = objectMapper.copy().registerModule(new SimpleModule().setDeserializerModifier(new PoolingModifier()));
 	}
 
 	public ObjectMapper getObjectMapper() {
 		return objectMapper;
 	}
 
-	public Object fromJson(String filePath, JavaType resultType) throws IOException {
-		return objectMapper.readValue(new File(filePath), resultType);
+	public Object fromJson(Path file, JavaType resultType) throws IOException {
+		try (InputStream in = Files.newInputStream(file)) {
+			return objectMapper.readValue(in, resultType);
+		}
+	}
+
+	/**
+	 * Same as fromJson, but the strings, numbers and {@link Pooled} values are
+	 * interned into the pool as they are read.
+	 */
+	public Object fromJson(Path file, JavaType resultType, ValuePool pool) throws IOException {
+		try (InputStream in = Files.newInputStream(file)) {
+			return poolingMapper.readerFor(resultType).withAttribute(ValuePool.class, pool).readValue(in);
+		}
+	}
+
+	/**
+	 * Wraps the deserializers of the pooled types.
+	 */
+	private static class PoolingModifier extends BeanDeserializerModifier {
+
+		@Override
+		public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc, JsonDeserializer<?> deserializer) {
+			Class<?> type = beanDesc.getBeanClass();
+			boolean pooled = type == String.class || type == Integer.class || type.isAnnotationPresent(Pooled.class);
+			return pooled ? new PoolingDeserializer(deserializer) : deserializer;
+		}
+
+		@Override
+		public JsonDeserializer<?> modifyArrayDeserializer(DeserializationConfig config, ArrayType valueType, BeanDescription beanDesc,
+				JsonDeserializer<?> deserializer) {
+			return valueType.getRawClass() == String[].class ? new PoolingDeserializer(deserializer) : deserializer;
+		}
+
+	}
+
+	private static class PoolingDeserializer extends DelegatingDeserializer {
+
+		private static final long serialVersionUID = 1L;
+
+		private PoolingDeserializer(JsonDeserializer<?> delegatee) {
+			super(delegatee);
+		}
+
+		@Override
+		protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+			return new PoolingDeserializer(newDelegatee);
+		}
+
+		@Override
+		public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+			Object value = super.deserialize(p, ctxt);
+			ValuePool pool = (ValuePool) ctxt.getAttribute(ValuePool.class);
+			return pool != null ? pool.intern(value) : value;
+		}
+
 	}
 
 }
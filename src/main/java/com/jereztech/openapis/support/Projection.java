@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.support;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+/**
+ * Includes or ignores the properties of the serialized entities. The
+ * properties may be nested paths, such as currencies.code; a property that is
+ * not a path includes or ignores its whole value. The property lists are
+ * compiled into a tree once and cached by their normalized form. Each node of
+ * the tree is the filter of the objects at its level and decides once per
+ * property writer, that is, per property of each class, whether it is
+ * serialized. The objects whose properties are all serialized get no filter
+ * and are written by Jackson as plain beans.
+ * 
+ * <pre>
+ * 
+ * Example: 
+ * {@code ObjectWriter writer = objectMapper.writer(Projection.compile("name,currencies.code", null).getFilterProvider());}
+ * </pre>
+ * 
+ * @author Joel Jerez
+ */
+public class Projection extends SimpleFilterProvider {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int MAX_CACHED_PROJECTIONS = 1024;
+	private static final String PATH_SEPARATOR = ".";
+
+	private static final BoundedCache<String, Projection> CACHE = new BoundedCache<>(MAX_CACHED_PROJECTIONS, projection -> 1);
+
+	/**
+	 * The node of the object being serialized by the thread, set while the
+	 * value of a property is written, or null at the top level.
+	 */
+	private static final ThreadLocal<Node> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * Serializes all the properties.
+	 */
+	public static final Projection ALL = new Projection("", Node.ALL);
+
+	private final String key;
+	private final Node root;
+
+	private Projection(String key, Node root) {
+		this.key = key;
+		this.root = root;
+	}
+
+	/**
+	 * Compiles the included properties or, if there are none, the ignored ones.
+	 */
+	public static Projection compile(String includeProperties, String ignoreProperties) {
+		String key = key(includeProperties, ignoreProperties);
+		return key.isEmpty() ? ALL : CACHE.get(key, Projection::parse);
+	}
+
+	/**
+	 * The normalized form of the property lists: + or - followed by the sorted
+	 * and distinct properties, or empty if all properties are serialized.
+	 */
+	public static String key(String includeProperties, String ignoreProperties) {
+		return isNotBlank(includeProperties) ? "+" + normalize(includeProperties)
+				: isNotBlank(ignoreProperties) ? "-" + normalize(ignoreProperties) : "";
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public FilterProvider getFilterProvider() {
+		return this;
+	}
+
+	/**
+	 * Called once per object: the filter of its level, or null to serialize it
+	 * as if it were not annotated.
+	 */
+	@Override
+	public PropertyFilter findPropertyFilter(Object filterId, Object valueToFilter) {
+		Node node = CURRENT.get();
+		if (node == null) {
+			node = root;
+		}
+		return node != Node.ALL ? node : null;
+	}
+
+	private static String normalize(String properties) {
+		return String.join(Constants.COMMA_SEPARATOR,
+				Arrays.stream(properties.split(Constants.COMMA_SEPARATOR)).map(StringUtils::strip).filter(StringUtils::isNotBlank).distinct().sorted()
+						.toArray(String[]::new));
+	}
+
+	private static Projection parse(String key) {
+		String[] paths = key.substring(1).split(Constants.COMMA_SEPARATOR);
+		return new Projection(key, key.charAt(0) == '+' ? Node.include(paths) : Node.ignore(paths));
+	}
+
+	/**
+	 * The properties to serialize at one level of the entities.
+	 */
+	private static class Node extends SimpleBeanPropertyFilter {
+
+		private static final Node ALL = new Node(false, Collections.emptySet(), Collections.emptyMap());
+		private static final Node OMITTED = new Node(true, Collections.emptySet(), Collections.emptyMap());
+
+		private final boolean include;
+		private final Set<String> names;
+		private final Map<String, Node> children;
+		private final Map<PropertyWriter, Node> writers = new ConcurrentHashMap<>();
+
+		private Node(boolean include, Set<String> names, Map<String, Node> children) {
+			this.include = include;
+			this.names = names;
+			this.children = children;
+		}
+
+		@Override
+		public void serializeAsField(Object pojo, JsonGenerator jgen, SerializerProvider provider, PropertyWriter writer) throws Exception {
+			Node child = writers.get(writer);
+			if (child == null) {
+				child = resolve(writer);
+				writers.put(writer, child);
+			}
+			if (child == OMITTED) {
+				if (!jgen.canOmitFields()) {
+					writer.serializeAsOmittedField(pojo, jgen, provider);
+				}
+			} else if (child == this) {
+				writer.serializeAsField(pojo, jgen, provider);
+			} else {
+				Node previous = CURRENT.get();
+				CURRENT.set(child);
+				try {
+					writer.serializeAsField(pojo, jgen, provider);
+				} finally {
+					CURRENT.set(previous);
+				}
+			}
+		}
+
+		/**
+		 * The node of the value of the property, this node if the value holds no
+		 * objects to filter, or OMITTED if the property is not serialized.
+		 */
+		private Node resolve(PropertyWriter writer) {
+			String name = writer.getName();
+			if (include != names.contains(name)) {
+				return OMITTED;
+			}
+			JavaType type = writer.getType();
+			while (type.isContainerType() && type.getContentType() != null) {
+				type = type.getContentType();
+			}
+			Class<?> rawClass = type.getRawClass();
+			if (ClassUtils.isPrimitiveOrWrapper(rawClass) || rawClass == String.class || rawClass.isEnum()) {
+				return this;
+			}
+			Node child = children.get(name);
+			return child != null ? child : ALL;
+		}
+
+		/**
+		 * Includes the first property of each path; a path includes only its nested
+		 * properties, unless the property alone is included too.
+		 */
+		private static Node include(String[] paths) {
+			Set<String> names = new HashSet<>();
+			Set<String> whole = new HashSet<>();
+			Map<String, Set<String>> nested = new HashMap<>();
+			for (String path : paths) {
+				int separator = path.indexOf(PATH_SEPARATOR);
+				String name = separator < 0 ? path : path.substring(0, separator);
+				names.add(name);
+				if (separator < 0) {
+					whole.add(name);
+				} else {
+					nested.computeIfAbsent(name, key -> new HashSet<>()).add(path.substring(separator + 1));
+				}
+			}
+			Map<String, Node> children = new HashMap<>();
+			nested.forEach((name, rest) -> {
+				if (!whole.contains(name)) {
+					children.put(name, include(rest.toArray(new String[0])));
+				}
+			});
+			return new Node(true, names, children);
+		}
+
+		/**
+		 * Ignores the properties that are not paths; a path ignores only its nested
+		 * properties.
+		 */
+		private static Node ignore(String[] paths) {
+			Set<String> names = new HashSet<>();
+			Map<String, Set<String>> nested = new HashMap<>();
+			for (String path : paths) {
+				int separator = path.indexOf(PATH_SEPARATOR);
+				if (separator < 0) {
+					names.add(path);
+				} else {
+					nested.computeIfAbsent(path.substring(0, separator), key -> new HashSet<>()).add(path.substring(separator + 1));
+				}
+			}
+			Map<String, Node> children = new HashMap<>();
+			nested.forEach((name, rest) -> {
+				if (!names.contains(name)) {
+					children.put(name, ignore(rest.toArray(new String[0])));
+				}
+			});
+			return new Node(false, names, children);
+		}
+
+	}
+
+}
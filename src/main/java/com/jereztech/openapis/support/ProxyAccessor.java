@@ -16,14 +16,21 @@
  ******************************************************************************/
 package com.jereztech.openapis.support;
 
+import static org.apache.commons.lang3.StringUtils.capitalize;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
-import static org.apache.commons.lang3.StringUtils.join;
 
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.math.BigInteger;
-import java.util.Arrays;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
@@ -38,45 +45,186 @@ import org.apache.commons.lang3.reflect.FieldUtils;
  * {@code String countryName = proxify(globe, 'continent.regionNull.country.name'); //expected: null}
  * </pre>
  * 
+ * The attribute paths are resolved once per class into generated getters, so
+ * repeated calls cost about the same as a direct getter call.
+ * 
  * @author Joel Jerez
  */
 public class ProxyAccessor {
 
-	private static final int ONE = BigInteger.ONE.intValue();
-	private static final String DOT = ".";
-	private static final String DOT_REGEX = "\\.";
+	private static final char DOT = '.';
+	private static final String GET_PREFIX = "get";
+	private static final String IS_PREFIX = "is";
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	/**
+	 * The getters of each class by lower case attribute name. Only the attributes
+	 * that resolve to a field are kept, so the unknown attributes of the filters
+	 * sent by clients cannot grow it.
+	 */
+	private static final ClassValue<ConcurrentMap<String, Function<Object, Object>>> GETTERS = new ClassValue<ConcurrentMap<String, Function<Object, Object>>>() {
+
+		@Override
+		protected ConcurrentMap<String, Function<Object, Object>> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+
+	};
 
 	@SuppressWarnings("unchecked")
 	public static <T> T proxify(Object entity, String attributePath) {
 		if (entity != null && isNotBlank(attributePath)) {
-			String[] attributePaths = attributePath.split(DOT_REGEX);
-			final String attribute = Arrays.stream(attributePaths).findFirst().orElse(null);
-			if (isNotBlank(attribute)) {
-				Optional<Field> fieldOptional = FieldUtils.getAllFieldsList(entity.getClass()).stream().filter((Field field) -> matchedField(field, attribute))
-						.findFirst();
-				if (fieldOptional.isPresent()) {
-					try {
-						Field field = fieldOptional.get();
-						field.setAccessible(true);
-						Object value = field.get(entity);
-						if (value != null) {
-							if (attributePaths.length > ONE) {
-								attributePaths = Arrays.copyOfRange(attributePaths, ONE, attributePaths.length);
-								return (ClassUtils.isPrimitiveOrWrapper(value.getClass()) || value instanceof String) ? null : proxify(value, join(attributePaths, DOT));
-							}
-							return (T) value;
-						}
-					} catch (Exception e) {
-						throw new RuntimeException(e);
-					}
+			return (T) new PathAccessor(attributePath, false).get(entity);
+		}
+		return null;
+	}
+
+	/**
+	 * Resolves the attribute path once for any entity class. The returned
+	 * accessor remembers the getters of the last class it has seen.
+	 */
+	public static Accessor accessor(String attributePath) {
+		return isNotBlank(attributePath) ? new PathAccessor(attributePath, false) : entity -> null;
+	}
+
+	/**
+	 * Returns the getter of the attribute, or null if the class has no such
+	 * field.
+	 */
+	private static Function<Object, Object> cachedGetter(Class<?> type, String attribute) {
+		ConcurrentMap<String, Function<Object, Object>> getters = GETTERS.get(type);
+		String key = attribute.toLowerCase(Locale.ROOT);
+		Function<Object, Object> getter = getters.get(key);
+		if (getter == null) {
+			getter = getter(type, attribute);
+			if (getter != null) {
+				getters.putIfAbsent(key, getter);
+			}
+		}
+		return getter;
+	}
+
+	private static Function<Object, Object> getter(Class<?> type, String attribute) {
+		if (isBlank(attribute)) {
+			return null;
+		}
+		Field field = FieldUtils.getAllFieldsList(type).stream().filter(candidate -> matchedField(candidate, attribute)).findFirst().orElse(null);
+		if (field == null) {
+			return null;
+		}
+		try {
+			Function<Object, Object> getter = generatedGetter(field);
+			return getter != null ? getter : fieldGetter(field);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Generates a getter through LambdaMetafactory when the class exposes a public
+	 * getter with the same type of the field.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Function<Object, Object> generatedGetter(Field field) {
+		Class<?> declaringClass = field.getDeclaringClass();
+		if (!Modifier.isPublic(declaringClass.getModifiers())) {
+			return null;
+		}
+		for (String prefix : new String[] { GET_PREFIX, IS_PREFIX }) {
+			try {
+				Method method = declaringClass.getMethod(prefix + capitalize(field.getName()));
+				if (method.getReturnType() == field.getType() && !Modifier.isStatic(method.getModifiers())) {
+					MethodHandle handle = LOOKUP.unreflect(method);
+					return (Function<Object, Object>) LambdaMetafactory
+							.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class), GETTER_TYPE.erase(), handle,
+									MethodType.methodType(ClassUtils.primitiveToWrapper(field.getType()), declaringClass))
+							.getTarget().invokeExact();
 				}
+			} catch (Throwable e) {
+				// falls back to the field handle
 			}
 		}
 		return null;
 	}
 
+	private static Function<Object, Object> fieldGetter(Field field) throws IllegalAccessException {
+		field.setAccessible(true);
+		MethodHandle handle = LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+		return entity -> {
+			try {
+				return (Object) handle.invokeExact(entity);
+			} catch (Throwable e) {
+				throw new RuntimeException(e);
+			}
+		};
+	}
+
 	private static boolean matchedField(Field field, String attribute) {
-		return !Modifier.isFinal(field.getModifiers()) && field.getName().equalsIgnoreCase(attribute);
+		return !Modifier.isStatic(field.getModifiers()) && field.getName().equalsIgnoreCase(attribute);
+	}
+
+	/**
+	 * The getter of an attribute for a concrete class, null if the class does not
+	 * have it.
+	 */
+	private static class BoundGetter {
+
+		private final Class<?> type;
+		private final Function<Object, Object> getter;
+
+		private BoundGetter(Class<?> type, Function<Object, Object> getter) {
+			this.type = type;
+			this.getter = getter;
+		}
+
+	}
+
+	/**
+	 * An attribute path not bound to a class yet: its first attribute and the
+	 * accessor of the remaining path. It caches the getter of the last class
+	 * seen, which is always the same one for our homogeneous datasets.
+	 */
+	private static class PathAccessor implements Accessor {
+
+		private final String attribute;
+		private final boolean nested;
+		private final PathAccessor next;
+		private volatile BoundGetter cached;
+
+		private PathAccessor(String attributePath, boolean nested) {
+			int dot = attributePath.indexOf(DOT);
+			String rest = dot < 0 ? null : attributePath.substring(dot + 1);
+			this.attribute = dot < 0 ? attributePath : attributePath.substring(0, dot);
+			this.nested = nested;
+			this.next = isNotBlank(rest) ? new PathAccessor(rest, true) : null;
+		}
+
+		@Override
+		public Object get(Object entity) {
+			if (entity == null) {
+				return null;
+			}
+			BoundGetter bound = cached;
+			if (bound == null || bound.type != entity.getClass()) {
+				bound = resolve(entity.getClass());
+				cached = bound;
+			}
+			if (bound.getter == null) {
+				return null;
+			}
+			Object value = bound.getter.apply(entity);
+			return value == null || next == null ? value : next.get(value);
+		}
+
+		private BoundGetter resolve(Class<?> type) {
+			if (nested && (ClassUtils.isPrimitiveOrWrapper(type) || type == String.class)) {
+				return new BoundGetter(type, null);
+			}
+			return new BoundGetter(type, cachedGetter(type, attribute));
+		}
+
 	}
 
 }
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.support;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+/**
+ * Resolves classpath resources, files or directories, to paths, so they are
+ * read the same way from the classes directory or from the packaged jar.
+ * 
+ * @author Joel Jerez
+ */
+public class ResourcePaths {
+
+	private static final String JAR_SCHEME = "jar";
+	private static final String JAR_SEPARATOR = "!/";
+
+	/**
+	 * Returns the path of the resource. Resources in a jar, even in the classes
+	 * directory nested in a Spring Boot jar, are opened through a zip file
+	 * system, which is shared by all the resources of the jar.
+	 */
+	public static Path get(String location) throws IOException {
+		URL url = ResourcePaths.class.getClassLoader().getResource(location);
+		if (url == null) {
+			throw new FileNotFoundException(location);
+		}
+		try {
+			URI uri = url.toURI();
+			if (!JAR_SCHEME.equals(uri.getScheme())) {
+				return Paths.get(uri);
+			}
+			String spec = uri.toString();
+			int separator = spec.indexOf(JAR_SEPARATOR);
+			// jar:file:/app.jar!/BOOT-INF/classes!/v1 is the entry /BOOT-INF/classes/v1 of app.jar
+			return zipFileSystem(URI.create(spec.substring(0, separator))).getPath(spec.substring(separator + 1).replace(JAR_SEPARATOR, "/"));
+		} catch (URISyntaxException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static synchronized FileSystem zipFileSystem(URI jar) throws IOException {
+		try {
+			return FileSystems.getFileSystem(jar);
+		} catch (FileSystemNotFoundException e) {
+			return FileSystems.newFileSystem(jar, Collections.emptyMap());
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes through to an output stream while keeping a copy of the bytes, as
+ * long as they fit in the given capacity. Once the capacity is exceeded the
+ * copy is dropped.
+ * 
+ * @author Joel Jerez
+ */
+public class TeeOutputStream extends OutputStream {
+
+	private final OutputStream out;
+	private final int capacity;
+	private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+	private long count;
+
+	public TeeOutputStream(OutputStream out, int capacity) {
+		this.out = out;
+		this.capacity = capacity;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		out.write(b);
+		copy(1).write(b);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		out.write(b, off, len);
+		copy(len).write(b, off, len);
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+	/**
+	 * The number of bytes written so far.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * The bytes written so far, or null if they exceeded the capacity.
+	 */
+	public byte[] toByteArray() {
+		return copy != null ? copy.toByteArray() : null;
+	}
+
+	private OutputStream copy(int len) {
+		count += len;
+		if (copy != null && count > capacity) {
+			copy = null;
+		}
+		return copy != null ? copy : NullOutputStream.INSTANCE;
+	}
+
+	private static class NullOutputStream extends OutputStream {
+
+		private static final NullOutputStream INSTANCE = new NullOutputStream();
+
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+
+	}
+
+}
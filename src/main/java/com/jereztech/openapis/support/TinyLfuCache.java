@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.support;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread-safe cache bounded by the total weight of its values, with a
+ * W-TinyLFU style admission policy: new entries go to a small LRU window, and
+ * the entries leaving the window only replace the least recently used entries
+ * of the main space when they were requested more often, as estimated by a
+ * {@link FrequencySketch}. One-off requests cannot flush popular entries.
+ * 
+ * @author Joel Jerez
+ *
+ * @param <K> the Key Class
+ * @param <V> the Value Class
+ */
+public class TinyLfuCache<K, V> {
+
+	private static final int WINDOW_PERCENT = 1;
+	private static final int SKETCH_WIDTH = 8192;
+
+	private final long windowMaxWeight;
+	private final long mainMaxWeight;
+	private final ToLongFunction<? super V> weigher;
+	private final FrequencySketch sketch = new FrequencySketch(SKETCH_WIDTH);
+	private final LinkedHashMap<K, Weighted<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+	private final LinkedHashMap<K, Weighted<V>> main = new LinkedHashMap<>(16, 0.75f, true);
+	private long windowWeight;
+	private long mainWeight;
+
+	public TinyLfuCache(long maxWeight, ToLongFunction<? super V> weigher) {
+		this.windowMaxWeight = maxWeight * WINDOW_PERCENT / 100;
+		this.mainMaxWeight = maxWeight - windowMaxWeight;
+		this.weigher = weigher;
+	}
+
+	public synchronized V get(K key) {
+		sketch.increment(key);
+		Weighted<V> entry = window.get(key);
+		if (entry == null) {
+			entry = main.get(key);
+		}
+		return entry != null ? entry.value : null;
+	}
+
+	/**
+	 * Returns the cached value or computes it outside the lock. The computed value
+	 * is returned even when the admission policy does not keep it.
+	 */
+	public V get(K key, Function<? super K, ? extends V> loader) {
+		V value = get(key);
+		if (value == null) {
+			value = loader.apply(key);
+			put(key, value);
+		}
+		return value;
+	}
+
+	public synchronized void put(K key, V value) {
+		long valueWeight = weigher.applyAsLong(value);
+		if (valueWeight > mainMaxWeight) {
+			return;
+		}
+		remove(key);
+		window.put(key, new Weighted<>(value, valueWeight));
+		windowWeight += valueWeight;
+		while (windowWeight > windowMaxWeight && !window.isEmpty()) {
+			Map.Entry<K, Weighted<V>> candidate = window.entrySet().iterator().next();
+			window.remove(candidate.getKey());
+			windowWeight -= candidate.getValue().weight;
+			admit(candidate.getKey(), candidate.getValue());
+		}
+	}
+
+	private void remove(K key) {
+		Weighted<V> previous = window.remove(key);
+		if (previous != null) {
+			windowWeight -= previous.weight;
+		}
+		previous = main.remove(key);
+		if (previous != null) {
+			mainWeight -= previous.weight;
+		}
+	}
+
+	/**
+	 * Moves the candidate to the main space if it is more popular than every
+	 * entry it would evict.
+	 */
+	private void admit(K key, Weighted<V> candidate) {
+		long needed = mainWeight + candidate.weight - mainMaxWeight;
+		if (needed > 0) {
+			int frequency = sketch.frequency(key);
+			List<K> victims = new ArrayList<>();
+			Iterator<Map.Entry<K, Weighted<V>>> iterator = main.entrySet().iterator();
+			while (needed > 0 && iterator.hasNext()) {
+				Map.Entry<K, Weighted<V>> victim = iterator.next();
+				if (sketch.frequency(victim.getKey()) >= frequency) {
+					return;
+				}
+				victims.add(victim.getKey());
+				needed -= victim.getValue().weight;
+			}
+			for (K victim : victims) {
+				mainWeight -= main.remove(victim).weight;
+			}
+		}
+		main.put(key, candidate);
+		mainWeight += candidate.weight;
+	}
+
+	private static class Weighted<V> {
+
+		private final V value;
+		private final long weight;
+
+		private Weighted(V value, long weight) {
+			this.value = value;
+			this.weight = weight;
+		}
+
+	}
+
+}
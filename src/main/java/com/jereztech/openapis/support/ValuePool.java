@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.support;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+/**
+ * A pool of the values read while building one dataset, so equal strings,
+ * numbers and {@link Pooled} values nested in different entities share one
+ * instance. It is dropped along with the build, so it never holds the values
+ * of previous reloads. The values are matched by equals and must be immutable.
+ * 
+ * @author Joel Jerez
+ */
+public class ValuePool {
+
+	private final ConcurrentMap<Object, Object> pool = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the pooled instance equal to the value. Arrays are not matched by
+	 * equals, so they are not pooled, but an empty one is replaced by a shared
+	 * one.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T intern(T value) {
+		if (value == null) {
+			return null;
+		}
+		if (value instanceof String[]) {
+			return ((String[]) value).length == 0 ? (T) ArrayUtils.EMPTY_STRING_ARRAY : value;
+		}
+		T pooled = (T) pool.putIfAbsent(value, value);
+		return pooled != null ? pooled : value;
+	}
+
+}
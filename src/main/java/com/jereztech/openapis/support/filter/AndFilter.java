@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.support.filter;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Matches the items accepted by all the terms, evaluated in order.
+ * 
+ * @author Joel Jerez
+ */
+public class AndFilter implements Filter {
+
+	private final Filter[] terms;
+
+	public AndFilter(Filter... terms) {
+		this.terms = terms.clone();
+	}
+
+	public List<Filter> getTerms() {
+		return Collections.unmodifiableList(Arrays.asList(terms));
+	}
+
+	@Override
+	public boolean test(Object item) {
+		for (Filter term : terms) {
+			if (!term.test(item)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.stream(terms).map(Filter::toString).sorted().collect(joining(" and ", "(", ")"));
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.jereztech.openapis.support.filter;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.RandomAccess;
+
+import com.jereztech.openapis.support.Accessor;
+import com.jereztech.openapis.support.ProxyAccessor;
+
+/**
+ * The base of the filters that test the value of an attribute. When the value
+ * is a collection or an array the filter matches if any of its elements does.
+ * 
+ * @author Joel Jerez
+ */
+public abstract class AttributeFilter implements Filter {
+
+	private final String attributePath;
+	private final boolean ignoreCase;
+	private final Accessor accessor;
+
+	protected AttributeFilter(String attributePath, boolean ignoreCase) {
+		this.attributePath = attributePath;
+		this.ignoreCase = ignoreCase;
+		this.accessor = ProxyAccessor.accessor(attributePath);
+	}
+
+	public String getAttributePath() {
+		return attributePath;
+	}
+
+	public boolean isIgnoreCase() {
+		return ignoreCase;
+	}
+
+	@Override
+	public boolean test(Object item) {
+		return anyMatch(accessor.get(item));
+	}
+
+	protected boolean anyMatch(Object value) {
+		if (value instanceof List && value instanceof RandomAccess) {
+			List<?> values = (List<?>) value;
+			for (int i = 0; i < values.size(); i++) {
+				if (matches(values.get(i))) {
+					return true;
+				}
+			}
+			return false;
+		}
+		if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				if (matches(element)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		if (value instanceof Object[]) {
+			for (Object element : (Object[]) value) {
+				if (matches(element)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		if (value != null && value.getClass().isArray()) {
+			for (int i = 0; i < Array.getLength(value); i++) {
+				if (matches(Array.get(value, i))) {
+					return true;
+				}
+			}
+			return false;
+		}
+		return matches(value);
+	}
+
+	protected abstract boolean matches(Object value);
+
+	/**
+	 * The canonical form of the operand: attributes are matched ignoring case.
+	 */
+	protected String operand() {
+		String attribute = attributePath.toLowerCase(Locale.ROOT);
+		return ignoreCase ? "tolower(" + attribute + ")" : attribute;
+	}
+
+}
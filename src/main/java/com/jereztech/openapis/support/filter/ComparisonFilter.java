@@ -0,0 +1,58 @@
+package com.jereztech.openapis.support.filter;
+
+/**
+ * Matches the items whose attribute compares to the literal as the operator
+ * requires. Numeric attributes are compared numerically.
+ *
+ * <pre>
+ * 
+ * Example: 
+ * {@code alpha2Code eq BR}
+ * {@code area gt 1000000}
+ * {@code tolower(name) eq 'brazil'}
+ * </pre>
+ *
+ * @author Joel Jerez
+ */
+public class ComparisonFilter extends AttributeFilter {
+
+	private final Operator operator;
+	private final Literal literal;
+
+	public ComparisonFilter(String attributePath, boolean ignoreCase, Operator operator, Literal literal) {
+		super(attributePath, ignoreCase);
+		this.operator = operator;
+		this.literal = literal;
+	}
+
+	public Operator getOperator() {
+		return operator;
+	}
+
+	public Literal getLiteral() {
+		return literal;
+	}
+
+	/**
+	 * A collection is not equal to the literal when none of its elements is.
+	 */
+	@Override
+	public boolean test(Object item) {
+		return operator == Operator.NE ? !super.test(item) : super.test(item);
+	}
+
+	@Override
+	protected boolean matches(Object value) {
+		int comparison = literal.compare(value, isIgnoreCase());
+		if (comparison == Literal.INCOMPARABLE) {
+			return false;
+		}
+		return operator == Operator.NE ? comparison == 0 : operator.accept(comparison);
+	}
+
+	@Override
+	public String toString() {
+		return operand() + " " + operator + " " + literal;
+	}
+
+}
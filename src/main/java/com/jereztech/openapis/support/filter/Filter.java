@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.support.filter;
+
+import java.util.function.Predicate;
+
+/**
+ * An immutable, compiled filter expression. Instances are safe to share
+ * between requests and threads, and {@link #toString()} returns the canonical
+ * form of the expression.
+ * 
+ * @author Joel Jerez
+ */
+public interface Filter extends Predicate<Object> {
+
+	Filter ALL = new Filter() {
+
+		@Override
+		public boolean test(Object item) {
+			return true;
+		}
+
+		@Override
+		public String toString() {
+			return "";
+		}
+
+	};
+
+}
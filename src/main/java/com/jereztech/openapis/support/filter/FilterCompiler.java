@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.support.filter;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.strip;
+
+import com.jereztech.openapis.support.BoundedCache;
+
+/**
+ * Compiles filter expressions into {@link Filter} trees. The expression is
+ * parsed once and the result is cached, so evaluating it against each item
+ * does not parse or allocate. See {@link FilterParser} for the grammar.
+ *
+ * <pre>
+ * 
+ * Example: 
+ * {@code Filter filter = FilterCompiler.compile("region eq Europe and (area gt 100000 or not startswith(name, 'S'))");}
+ * </pre>
+ * 
+ * @author Joel Jerez
+ */
+public class FilterCompiler {
+
+	private static final int MAX_CACHED_FILTERS = 1024;
+
+	private static final BoundedCache<String, Filter> CACHE = new BoundedCache<>(MAX_CACHED_FILTERS, filter -> 1);
+
+	public static Filter compile(String filter) {
+		if (isBlank(filter)) {
+			return Filter.ALL;
+		}
+		return CACHE.get(strip(filter), FilterCompiler::parse);
+	}
+
+	private static Filter parse(String filter) {
+		return new FilterParser(filter).parse();
+	}
+
+}
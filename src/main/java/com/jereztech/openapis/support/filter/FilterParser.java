@@ -0,0 +1,245 @@
+package com.jereztech.openapis.support.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A recursive descent parser for the filter language, a subset of the OData
+ * $filter syntax. Literals can be quoted with single quotes; unquoted literals
+ * run until the next {@code and}/{@code or} keyword, so the original
+ * {@code subregion eq Northern Europe} syntax keeps working.
+ *
+ * <pre>
+ * 
+ * expression := or
+ * or         := and ('or' and)*
+ * and        := unary ('and' unary)*
+ * unary      := 'not' unary | '(' expression ')' | function | comparison
+ * function   := ('startswith' | 'endswith' | 'contains') '(' operand ',' literal ')'
+ * comparison := operand ('eq' | 'ne' | 'gt' | 'ge' | 'lt' | 'le') literal
+ *             | operand 'in' '(' literal (',' literal)* ')'
+ * operand    := attribute | 'tolower' '(' attribute ')'
+ * literal    := 'quoted text' | unquoted text | null
+ * </pre>
+ *
+ * @author Joel Jerez
+ */
+class FilterParser {
+
+	private static final String AND = "and";
+	private static final String OR = "or";
+	private static final String NOT = "not";
+	private static final String IN = "in";
+	private static final String NULL = "null";
+	private static final String TOLOWER = "tolower";
+	private static final char QUOTE = '\'';
+	private static final char OPEN = '(';
+	private static final char CLOSE = ')';
+	private static final char COMMA = ',';
+
+	private final String filter;
+	private int position;
+	private int depth;
+
+	FilterParser(String filter) {
+		this.filter = filter;
+	}
+
+	Filter parse() {
+		Filter expression = or();
+		skipWhitespace();
+		if (position < filter.length()) {
+			throw error("unexpected '" + filter.charAt(position) + "'");
+		}
+		return expression;
+	}
+
+	private Filter or() {
+		List<Filter> terms = new ArrayList<>();
+		terms.add(and());
+		while (keyword(OR)) {
+			terms.add(and());
+		}
+		return terms.size() == 1 ? terms.get(0) : new OrFilter(terms.toArray(new Filter[0]));
+	}
+
+	private Filter and() {
+		List<Filter> terms = new ArrayList<>();
+		addTerm(terms, unary());
+		while (keyword(AND)) {
+			addTerm(terms, unary());
+		}
+		return terms.size() == 1 ? terms.get(0) : new AndFilter(terms.toArray(new Filter[0]));
+	}
+
+	private static void addTerm(List<Filter> terms, Filter term) {
+		if (term instanceof AndFilter) {
+			terms.addAll(((AndFilter) term).getTerms());
+		} else {
+			terms.add(term);
+		}
+	}
+
+	private Filter unary() {
+		if (keyword(NOT)) {
+			return new NotFilter(unary());
+		}
+		if (symbol(OPEN)) {
+			depth++;
+			Filter expression = or();
+			expect(CLOSE);
+			depth--;
+			return expression;
+		}
+		int start = position;
+		String name = attribute();
+		for (StringFunctionFilter.Function function : StringFunctionFilter.Function.values()) {
+			if (function.toString().equals(name) && symbol(OPEN)) {
+				boolean ignoreCase = lowered();
+				String attribute = ignoreCase ? operandAttribute() : attribute();
+				expect(COMMA);
+				Literal literal = literal(true);
+				expect(CLOSE);
+				if (literal.isNull()) {
+					throw error(function + " requires a text");
+				}
+				return new StringFunctionFilter(function, attribute, ignoreCase, literal.getText());
+			}
+		}
+		position = start;
+		return comparison();
+	}
+
+	private Filter comparison() {
+		boolean ignoreCase = lowered();
+		String attribute = ignoreCase ? operandAttribute() : attribute();
+		if (keyword(IN)) {
+			expect(OPEN);
+			List<Literal> literals = new ArrayList<>();
+			do {
+				literals.add(literal(true));
+			} while (symbol(COMMA));
+			expect(CLOSE);
+			return new InFilter(attribute, ignoreCase, literals.toArray(new Literal[0]));
+		}
+		for (Operator operator : Operator.values()) {
+			if (keyword(operator.toString())) {
+				return new ComparisonFilter(attribute, ignoreCase, operator, literal(depth > 0));
+			}
+		}
+		throw error("expected an operator after '" + attribute + "'");
+	}
+
+	/**
+	 * Reads the opening of a {@code tolower(attribute)} operand.
+	 */
+	private boolean lowered() {
+		int start = position;
+		if (TOLOWER.equals(attribute()) && symbol(OPEN)) {
+			return true;
+		}
+		position = start;
+		return false;
+	}
+
+	private String operandAttribute() {
+		String attribute = attribute();
+		expect(CLOSE);
+		return attribute;
+	}
+
+	private String attribute() {
+		skipWhitespace();
+		int start = position;
+		while (position < filter.length() && (Character.isLetterOrDigit(filter.charAt(position)) || filter.charAt(position) == '_' || filter.charAt(position) == '.')) {
+			position++;
+		}
+		if (start == position) {
+			throw error("expected an attribute");
+		}
+		return filter.substring(start, position);
+	}
+
+	/**
+	 * Reads a quoted or an unquoted literal. Inside parentheses or argument lists
+	 * an unquoted literal also ends at the closing parenthesis or comma.
+	 */
+	private Literal literal(boolean nested) {
+		skipWhitespace();
+		if (position < filter.length() && filter.charAt(position) == QUOTE) {
+			StringBuilder text = new StringBuilder();
+			position++;
+			while (true) {
+				if (position >= filter.length()) {
+					throw error("unterminated quote");
+				}
+				char current = filter.charAt(position++);
+				if (current == QUOTE) {
+					if (position < filter.length() && filter.charAt(position) == QUOTE) {
+						position++;
+					} else {
+						return new Literal(text.toString());
+					}
+				}
+				text.append(current);
+			}
+		}
+		int start = position;
+		while (position < filter.length() && !endOfLiteral(nested)) {
+			position++;
+		}
+		String text = filter.substring(start, position).trim();
+		if (text.isEmpty()) {
+			throw error("expected a value");
+		}
+		return NULL.equals(text) ? Literal.NULL : new Literal(text);
+	}
+
+	private boolean endOfLiteral(boolean nested) {
+		char current = filter.charAt(position);
+		if (nested && (current == CLOSE || current == COMMA)) {
+			return true;
+		}
+		return Character.isWhitespace(current) && (followedBy(position + 1, AND) || followedBy(position + 1, OR));
+	}
+
+	private boolean followedBy(int index, String word) {
+		int end = index + word.length();
+		return filter.startsWith(word, index) && (end == filter.length() || Character.isWhitespace(filter.charAt(end)) || filter.charAt(end) == OPEN);
+	}
+
+	private boolean keyword(String word) {
+		skipWhitespace();
+		if (followedBy(position, word)) {
+			position += word.length();
+			return true;
+		}
+		return false;
+	}
+
+	private boolean symbol(char symbol) {
+		skipWhitespace();
+		if (position < filter.length() && filter.charAt(position) == symbol) {
+			position++;
+			return true;
+		}
+		return false;
+	}
+
+	private void expect(char symbol) {
+		if (!symbol(symbol)) {
+			throw error("expected '" + symbol + "'");
+		}
+	}
+
+	private void skipWhitespace() {
+		while (position < filter.length() && Character.isWhitespace(filter.charAt(position))) {
+			position++;
+		}
+	}
+
+	private IllegalArgumentException error(String reason) {
+		return new IllegalArgumentException(String.format("Invalid filter: %s at position %d.", reason, position));
+	}
+
+}
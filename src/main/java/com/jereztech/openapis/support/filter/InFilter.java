@@ -0,0 +1,47 @@
+package com.jereztech.openapis.support.filter;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.Arrays;
+
+/**
+ * Matches the items whose attribute is equal to any of the literals.
+ *
+ * <pre>
+ * 
+ * Example: 
+ * {@code alpha2Code in (BR, PT, AO)}
+ * </pre>
+ *
+ * @author Joel Jerez
+ */
+public class InFilter extends AttributeFilter {
+
+	private final Literal[] literals;
+
+	public InFilter(String attributePath, boolean ignoreCase, Literal... literals) {
+		super(attributePath, ignoreCase);
+		this.literals = literals.clone();
+		Arrays.sort(this.literals);
+	}
+
+	public int size() {
+		return literals.length;
+	}
+
+	@Override
+	protected boolean matches(Object value) {
+		for (Literal literal : literals) {
+			if (literal.compare(value, isIgnoreCase()) == 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return operand() + " in " + Arrays.stream(literals).map(Literal::toString).collect(joining(",", "(", ")"));
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.jereztech.openapis.support.filter;
+
+import java.util.regex.Pattern;
+
+/**
+ * A literal value of a filter expression. The text is parsed once, so numeric
+ * attributes can be compared without parsing it again for every item.
+ * 
+ * @author Joel Jerez
+ */
+public class Literal implements Comparable<Literal> {
+
+	/**
+	 * The result of comparing a value that cannot be ordered against the literal.
+	 */
+	public static final int INCOMPARABLE = Integer.MIN_VALUE;
+
+	public static final Literal NULL = new Literal(null);
+
+	private static final Pattern NUMBER = Pattern.compile("[-+]?\\d+(\\.\\d+)?([eE][-+]?\\d+)?");
+	private static final char QUOTE = '\'';
+
+	private final String text;
+	private final boolean numeric;
+	private final double number;
+
+	public Literal(String text) {
+		this.text = text;
+		this.numeric = text != null && NUMBER.matcher(text).matches();
+		this.number = numeric ? Double.parseDouble(text) : Double.NaN;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	public boolean isNull() {
+		return text == null;
+	}
+
+	/**
+	 * Compares the value against this literal: numbers numerically and strings
+	 * lexicographically. Returns {@link #INCOMPARABLE} when the types do not
+	 * match.
+	 */
+	public int compare(Object value, boolean ignoreCase) {
+		if (value == null || text == null) {
+			return value == text ? 0 : INCOMPARABLE;
+		}
+		if (value instanceof String) {
+			int comparison = ignoreCase ? ((String) value).compareToIgnoreCase(text) : ((String) value).compareTo(text);
+			return Integer.signum(comparison);
+		}
+		if (value instanceof Number) {
+			return numeric ? Double.compare(((Number) value).doubleValue(), number) : INCOMPARABLE;
+		}
+		if (value instanceof Character) {
+			return text.length() == 1 ? Character.compare((Character) value, text.charAt(0)) : INCOMPARABLE;
+		}
+		return INCOMPARABLE;
+	}
+
+	@Override
+	public int compareTo(Literal other) {
+		return toString().compareTo(other.toString());
+	}
+
+	@Override
+	public String toString() {
+		return text == null ? "null" : QUOTE + text.replace("'", "''") + QUOTE;
+	}
+
+}
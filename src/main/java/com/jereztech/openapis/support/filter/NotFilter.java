@@ -0,0 +1,26 @@
+package com.jereztech.openapis.support.filter;
+
+/**
+ * Matches the items rejected by the term.
+ *
+ * @author Joel Jerez
+ */
+public class NotFilter implements Filter {
+
+	private final Filter term;
+
+	public NotFilter(Filter term) {
+		this.term = term;
+	}
+
+	@Override
+	public boolean test(Object item) {
+		return !term.test(item);
+	}
+
+	@Override
+	public String toString() {
+		return "not " + term;
+	}
+
+}
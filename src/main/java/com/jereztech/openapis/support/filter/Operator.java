@@ -0,0 +1,36 @@
+package com.jereztech.openapis.support.filter;
+
+import java.util.Locale;
+
+/**
+ * The comparison operators of the filter expressions.
+ * 
+ * @author Joel Jerez
+ */
+public enum Operator {
+
+	EQ, NE, GT, GE, LT, LE;
+
+	public boolean accept(int comparison) {
+		switch (this) {
+		case EQ:
+			return comparison == 0;
+		case NE:
+			return comparison != 0;
+		case GT:
+			return comparison > 0;
+		case GE:
+			return comparison >= 0;
+		case LT:
+			return comparison < 0;
+		default:
+			return comparison <= 0;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return name().toLowerCase(Locale.ROOT);
+	}
+
+}
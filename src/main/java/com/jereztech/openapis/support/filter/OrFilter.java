@@ -0,0 +1,35 @@
+package com.jereztech.openapis.support.filter;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.Arrays;
+
+/**
+ * Matches the items accepted by any of the terms, evaluated in order.
+ *
+ * @author Joel Jerez
+ */
+public class OrFilter implements Filter {
+
+	private final Filter[] terms;
+
+	public OrFilter(Filter... terms) {
+		this.terms = terms.clone();
+	}
+
+	@Override
+	public boolean test(Object item) {
+		for (Filter term : terms) {
+			if (term.test(item)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.stream(terms).map(Filter::toString).sorted().collect(joining(" or ", "(", ")"));
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.jereztech.openapis.support.filter;
+
+import java.util.Locale;
+
+/**
+ * Matches the items whose string attribute starts with, ends with or contains
+ * the literal.
+ *
+ * <pre>
+ * 
+ * Example: 
+ * {@code startswith(name, 'United')}
+ * {@code contains(tolower(name), 'island')}
+ * </pre>
+ *
+ * @author Joel Jerez
+ */
+public class StringFunctionFilter extends AttributeFilter {
+
+	public enum Function {
+
+		STARTSWITH, ENDSWITH, CONTAINS;
+
+		@Override
+		public String toString() {
+			return name().toLowerCase(Locale.ROOT);
+		}
+
+	}
+
+	private final Function function;
+	private final String text;
+
+	public StringFunctionFilter(Function function, String attributePath, boolean ignoreCase, String text) {
+		super(attributePath, ignoreCase);
+		this.function = function;
+		this.text = text;
+	}
+
+	@Override
+	protected boolean matches(Object value) {
+		if (!(value instanceof String)) {
+			return false;
+		}
+		String string = (String) value;
+		int offset = string.length() - text.length();
+		if (offset < 0) {
+			return false;
+		}
+		switch (function) {
+		case STARTSWITH:
+			return string.regionMatches(isIgnoreCase(), 0, text, 0, text.length());
+		case ENDSWITH:
+			return string.regionMatches(isIgnoreCase(), offset, text, 0, text.length());
+		default:
+			for (int i = 0; i <= offset; i++) {
+				if (string.regionMatches(isIgnoreCase(), i, text, 0, text.length())) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return function + "(" + operand() + "," + new Literal(text) + ")";
+	}
+
+}
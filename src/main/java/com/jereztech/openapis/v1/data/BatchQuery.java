@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.data;
+
+import com.jereztech.openapis.support.Constants;
+
+/**
+ * A query of a batch: the findAll request of a resource, or of its
+ * translations if a locale is given. A missing or null page defaults as in
+ * the findAll end-points.
+ * 
+ * @author Joel Jerez
+ */
+public class BatchQuery {
+
+	private String resource;
+	private String locale;
+	private Integer pageNumber = Constants.FIRST_PAGE_INT;
+	private Integer pageSize = Integer.valueOf(Constants.PAGE_SIZE);
+	private String filter;
+	private String cursor;
+	private String includeProperties;
+	private String ignoreProperties;
+
+	public String getResource() {
+		return resource;
+	}
+
+	public void setResource(String resource) {
+		this.resource = resource;
+	}
+
+	public String getLocale() {
+		return locale;
+	}
+
+	public void setLocale(String locale) {
+		this.locale = locale;
+	}
+
+	public Integer getPageNumber() {
+		return pageNumber;
+	}
+
+	public void setPageNumber(Integer pageNumber) {
+		this.pageNumber = pageNumber != null ? pageNumber : Constants.FIRST_PAGE_INT;
+	}
+
+	public Integer getPageSize() {
+		return pageSize;
+	}
+
+	public void setPageSize(Integer pageSize) {
+		this.pageSize = pageSize != null ? pageSize : Integer.valueOf(Constants.PAGE_SIZE);
+	}
+
+	public String getFilter() {
+		return filter;
+	}
+
+	public void setFilter(String filter) {
+		this.filter = filter;
+	}
+
+	public String getCursor() {
+		return cursor;
+	}
+
+	public void setCursor(String cursor) {
+		this.cursor = cursor;
+	}
+
+	public String getIncludeProperties() {
+		return includeProperties;
+	}
+
+	public void setIncludeProperties(String includeProperties) {
+		this.includeProperties = includeProperties;
+	}
+
+	public String getIgnoreProperties() {
+		return ignoreProperties;
+	}
+
+	public void setIgnoreProperties(String ignoreProperties) {
+		this.ignoreProperties = ignoreProperties;
+	}
+
+}
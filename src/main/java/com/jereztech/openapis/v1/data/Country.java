@@ -16,37 +16,42 @@
  ******************************************************************************/
 package com.jereztech.openapis.v1.data;
 
-import java.util.List;
-
 import com.fasterxml.jackson.annotation.JsonFilter;
 import com.jereztech.openapis.support.Constants;
+import com.jereztech.openapis.support.ValuePool;
 
 /**
+ * A country as it is kept in memory. The repeated values, such as the codes,
+ * the regions and the nested currencies, languages and regional blocs, are
+ * shared through the {@link ValuePool} of the dataset while they are read, and
+ * the multivalued attributes are arrays, so a row holds no list wrappers or
+ * boxed numbers.
+ * 
  * @author Joel Jerez
  */
 @JsonFilter(Constants.FILTER_NAME)
 public class Country {
 
 	private String name;
-	private List<String> topLevelDomain;
+	private String[] topLevelDomain;
 	private String alpha2Code;
 	private String alpha3Code;
-	private List<String> callingCodes;
+	private String[] callingCodes;
 	private String capital;
-	private List<String> altSpellings;
+	private String[] altSpellings;
 	private String region;
 	private String subregion;
-	private List<Integer> latlng;
+	private int[] latlng;
 	private String demonym;
-	private Integer area;
-	private List<String> timezones;
-	private List<String> borders;
+	private int area;
+	private String[] timezones;
+	private String[] borders;
 	private String nativeName;
 	private String numericCode;
-	private List<Currency> currencies;
-	private List<Language> languages;
+	private Currency[] currencies;
+	private Language[] languages;
 	private String flag;
-	private List<RegionalBloc> regionalBlocs;
+	private RegionalBloc[] regionalBlocs;
 	private String cioc;
 
 	public String getName() {
@@ -57,11 +62,11 @@ public class Country {
 		this.name = name;
 	}
 
-	public List<String> getTopLevelDomain() {
+	public String[] getTopLevelDomain() {
 		return topLevelDomain;
 	}
 
-	public void setTopLevelDomain(List<String> topLevelDomain) {
+	public void setTopLevelDomain(String[] topLevelDomain) {
 		this.topLevelDomain = topLevelDomain;
 	}
 
@@ -81,11 +86,11 @@ public class Country {
 		this.alpha3Code = alpha3Code;
 	}
 
-	public List<String> getCallingCodes() {
+	public String[] getCallingCodes() {
 		return callingCodes;
 	}
 
-	public void setCallingCodes(List<String> callingCodes) {
+	public void setCallingCodes(String[] callingCodes) {
 		this.callingCodes = callingCodes;
 	}
 
@@ -97,11 +102,11 @@ public class Country {
 		this.capital = capital;
 	}
 
-	public List<String> getAltSpellings() {
+	public String[] getAltSpellings() {
 		return altSpellings;
 	}
 
-	public void setAltSpellings(List<String> altSpellings) {
+	public void setAltSpellings(String[] altSpellings) {
 		this.altSpellings = altSpellings;
 	}
 
@@ -121,11 +126,11 @@ public class Country {
 		this.subregion = subregion;
 	}
 
-	public List<Integer> getLatlng() {
+	public int[] getLatlng() {
 		return latlng;
 	}
 
-	public void setLatlng(List<Integer> latlng) {
+	public void setLatlng(int[] latlng) {
 		this.latlng = latlng;
 	}
 
@@ -145,19 +150,19 @@ public class Country {
 		this.area = area;
 	}
 
-	public List<String> getTimezones() {
+	public String[] getTimezones() {
 		return timezones;
 	}
 
-	public void setTimezones(List<String> timezones) {
+	public void setTimezones(String[] timezones) {
 		this.timezones = timezones;
 	}
 
-	public List<String> getBorders() {
+	public String[] getBorders() {
 		return borders;
 	}
 
-	public void setBorders(List<String> borders) {
+	public void setBorders(String[] borders) {
 		this.borders = borders;
 	}
 
@@ -177,19 +182,19 @@ public class Country {
 		this.numericCode = numericCode;
 	}
 
-	public List<Currency> getCurrencies() {
+	public Currency[] getCurrencies() {
 		return currencies;
 	}
 
-	public void setCurrencies(List<Currency> currencies) {
+	public void setCurrencies(Currency[] currencies) {
 		this.currencies = currencies;
 	}
 
-	public List<Language> getLanguages() {
+	public Language[] getLanguages() {
 		return languages;
 	}
 
-	public void setLanguages(List<Language> languages) {
+	public void setLanguages(Language[] languages) {
 		this.languages = languages;
 	}
 
@@ -201,11 +206,11 @@ public class Country {
 		this.flag = flag;
 	}
 
-	public List<RegionalBloc> getRegionalBlocs() {
+	public RegionalBloc[] getRegionalBlocs() {
 		return regionalBlocs;
 	}
 
-	public void setRegionalBlocs(List<RegionalBloc> regionalBlocs) {
+	public void setRegionalBlocs(RegionalBloc[] regionalBlocs) {
 		this.regionalBlocs = regionalBlocs;
 	}
 
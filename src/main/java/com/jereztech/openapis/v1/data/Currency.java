@@ -16,68 +16,88 @@
  ******************************************************************************/
 package com.jereztech.openapis.v1.data;
 
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.jereztech.openapis.support.Constants;
+import com.jereztech.openapis.support.Pooled;
+import com.jereztech.openapis.support.ValuePool;
 
 /**
+ * Currencies are immutable and compared by value, so equal ones nested in
+ * different countries are shared through the {@link ValuePool} of the dataset.
+ * 
  * @author Joel Jerez
  */
+@Pooled
 @JsonFilter(Constants.FILTER_NAME)
 public class Currency {
 
-	private String code;
-	private String name;
-	private String symbol;
-	private Integer number;
-	private String countryAlpha3Code;
-	private String countryName;
+	private final String code;
+	private final String name;
+	private final String symbol;
+	private final Integer number;
+	private final String countryAlpha3Code;
+	private final String countryName;
+
+	@JsonCreator
+	public Currency(@JsonProperty("code") String code, @JsonProperty("name") String name, @JsonProperty("symbol") String symbol,
+			@JsonProperty("number") Integer number, @JsonProperty("countryAlpha3Code") String countryAlpha3Code,
+			@JsonProperty("countryName") String countryName) {
+		this.code = code;
+		this.name = name;
+		this.symbol = symbol;
+		this.number = number;
+		this.countryAlpha3Code = countryAlpha3Code;
+		this.countryName = countryName;
+	}
 
 	public String getCode() {
 		return code;
 	}
 
-	public void setCode(String code) {
-		this.code = code;
-	}
-
 	public String getName() {
 		return name;
 	}
 
-	public void setName(String name) {
-		this.name = name;
-	}
-
 	public String getSymbol() {
 		return symbol;
 	}
 
-	public void setSymbol(String symbol) {
-		this.symbol = symbol;
-	}
-
 	public Integer getNumber() {
 		return number;
 	}
 
-	public void setNumber(Integer number) {
-		this.number = number;
-	}
-
 	public String getCountryAlpha3Code() {
 		return countryAlpha3Code;
 	}
 
-	public void setCountryAlpha3Code(String countryAlpha3Code) {
-		this.countryAlpha3Code = countryAlpha3Code;
-	}
-
 	public String getCountryName() {
 		return countryName;
 	}
 
-	public void setCountryName(String countryName) {
-		this.countryName = countryName;
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		Currency other = (Currency) obj;
+		return Objects.equals(code, other.code)
+				&& Objects.equals(name, other.name)
+				&& Objects.equals(symbol, other.symbol)
+				&& Objects.equals(number, other.number)
+				&& Objects.equals(countryAlpha3Code, other.countryAlpha3Code)
+				&& Objects.equals(countryName, other.countryName);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(code, name, symbol, number, countryAlpha3Code, countryName);
 	}
 
 }
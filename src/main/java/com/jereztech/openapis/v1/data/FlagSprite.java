@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.data;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.jereztech.openapis.support.Constants;
+
+/**
+ * The manifest of a flag sprite sheet: the offsets are the [x, y] position of
+ * each flag by alpha2Code.
+ * 
+ * @author Joel Jerez
+ */
+@JsonFilter(Constants.FILTER_NAME)
+public class FlagSprite {
+
+	private Integer size;
+	private Integer width;
+	private Integer height;
+	private Map<String, List<Integer>> offsets;
+
+	public FlagSprite() {
+	}
+
+	public FlagSprite(Integer size, Integer width, Integer height, Map<String, List<Integer>> offsets) {
+		this.size = size;
+		this.width = width;
+		this.height = height;
+		this.offsets = offsets;
+	}
+
+	public Integer getSize() {
+		return size;
+	}
+
+	public void setSize(Integer size) {
+		this.size = size;
+	}
+
+	public Integer getWidth() {
+		return width;
+	}
+
+	public void setWidth(Integer width) {
+		this.width = width;
+	}
+
+	public Integer getHeight() {
+		return height;
+	}
+
+	public void setHeight(Integer height) {
+		this.height = height;
+	}
+
+	public Map<String, List<Integer>> getOffsets() {
+		return offsets;
+	}
+
+	public void setOffsets(Map<String, List<Integer>> offsets) {
+		this.offsets = offsets;
+	}
+
+}
@@ -16,86 +16,102 @@
  ******************************************************************************/
 package com.jereztech.openapis.v1.data;
 
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.jereztech.openapis.support.Constants;
+import com.jereztech.openapis.support.Pooled;
+import com.jereztech.openapis.support.ValuePool;
 
 /**
+ * Languages are immutable and compared by value, so equal ones nested in
+ * different countries are shared through the {@link ValuePool} of the dataset.
+ * 
  * @author Joel Jerez
  */
+@Pooled
 @JsonFilter(Constants.FILTER_NAME)
 public class Language {
 
-	private Integer number;
-	private String name;
-	private String nativeName;
-	private String countryName;
-	private String iso6391;
-	private String iso6392;
-	private String localeAlpha2;
-	private String localeAlpha3;
+	private final Integer number;
+	private final String name;
+	private final String nativeName;
+	private final String countryName;
+	private final String iso6391;
+	private final String iso6392;
+	private final String localeAlpha2;
+	private final String localeAlpha3;
+
+	@JsonCreator
+	public Language(@JsonProperty("number") Integer number, @JsonProperty("name") String name, @JsonProperty("nativeName") String nativeName,
+			@JsonProperty("countryName") String countryName, @JsonProperty("iso6391") String iso6391, @JsonProperty("iso6392") String iso6392,
+			@JsonProperty("localeAlpha2") String localeAlpha2, @JsonProperty("localeAlpha3") String localeAlpha3) {
+		this.number = number;
+		this.name = name;
+		this.nativeName = nativeName;
+		this.countryName = countryName;
+		this.iso6391 = iso6391;
+		this.iso6392 = iso6392;
+		this.localeAlpha2 = localeAlpha2;
+		this.localeAlpha3 = localeAlpha3;
+	}
 
 	public Integer getNumber() {
 		return number;
 	}
 
-	public void setNumber(Integer number) {
-		this.number = number;
-	}
-
 	public String getName() {
 		return name;
 	}
 
-	public void setName(String name) {
-		this.name = name;
-	}
-
 	public String getNativeName() {
 		return nativeName;
 	}
 
-	public void setNativeName(String nativeName) {
-		this.nativeName = nativeName;
-	}
-
 	public String getCountryName() {
 		return countryName;
 	}
 
-	public void setCountryName(String countryName) {
-		this.countryName = countryName;
-	}
-
 	public String getIso6391() {
 		return iso6391;
 	}
 
-	public void setIso6391(String iso6391) {
-		this.iso6391 = iso6391;
-	}
-
 	public String getIso6392() {
 		return iso6392;
 	}
 
-	public void setIso6392(String iso6392) {
-		this.iso6392 = iso6392;
-	}
-
 	public String getLocaleAlpha2() {
 		return localeAlpha2;
 	}
 
-	public void setLocaleAlpha2(String localeAlpha2) {
-		this.localeAlpha2 = localeAlpha2;
-	}
-
 	public String getLocaleAlpha3() {
 		return localeAlpha3;
 	}
 
-	public void setLocaleAlpha3(String localeAlpha3) {
-		this.localeAlpha3 = localeAlpha3;
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		Language other = (Language) obj;
+		return Objects.equals(number, other.number)
+				&& Objects.equals(name, other.name)
+				&& Objects.equals(nativeName, other.nativeName)
+				&& Objects.equals(countryName, other.countryName)
+				&& Objects.equals(iso6391, other.iso6391)
+				&& Objects.equals(iso6392, other.iso6392)
+				&& Objects.equals(localeAlpha2, other.localeAlpha2)
+				&& Objects.equals(localeAlpha3, other.localeAlpha3);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(number, name, nativeName, countryName, iso6391, iso6392, localeAlpha2, localeAlpha3);
 	}
 
 }
@@ -16,48 +16,84 @@
  ******************************************************************************/
 package com.jereztech.openapis.v1.data;
 
-import java.util.List;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.jereztech.openapis.support.Constants;
+import com.jereztech.openapis.support.Pooled;
+import com.jereztech.openapis.support.ValuePool;
 
 /**
+ * Regional blocs are immutable and compared by value, so equal ones nested in
+ * different countries are shared through the {@link ValuePool} of the dataset.
+ * The arrays are copied, so they cannot be modified once it is pooled.
+ * 
  * @author Joel Jerez
  */
+@Pooled
+@JsonFilter(Constants.FILTER_NAME)
 public class RegionalBloc {
 
-	private String acronym;
-	private String name;
-	private List<Object> otherAcronyms;
-	private List<Object> otherNames;
+	private final String acronym;
+	private final String name;
+	private final String[] otherAcronyms;
+	private final String[] otherNames;
 
-	public String getAcronym() {
-		return acronym;
+	@JsonCreator
+	public RegionalBloc(@JsonProperty("acronym") String acronym, @JsonProperty("name") String name,
+			@JsonProperty("otherAcronyms") String[] otherAcronyms, @JsonProperty("otherNames") String[] otherNames) {
+		this.acronym = acronym;
+		this.name = name;
+		this.otherAcronyms = copy(otherAcronyms);
+		this.otherNames = copy(otherNames);
 	}
 
-	public void setAcronym(String acronym) {
-		this.acronym = acronym;
+	public String getAcronym() {
+		return acronym;
 	}
 
 	public String getName() {
 		return name;
 	}
 
-	public void setName(String name) {
-		this.name = name;
+	public String[] getOtherAcronyms() {
+		return copy(otherAcronyms);
 	}
 
-	public List<Object> getOtherAcronyms() {
-		return otherAcronyms;
+	public String[] getOtherNames() {
+		return copy(otherNames);
 	}
 
-	public void setOtherAcronyms(List<Object> otherAcronyms) {
-		this.otherAcronyms = otherAcronyms;
+	/**
+	 * Copies the array, unless it is empty, since it can be shared then.
+	 */
+	private static String[] copy(String[] values) {
+		return ArrayUtils.isEmpty(values) ? values : values.clone();
 	}
 
-	public List<Object> getOtherNames() {
-		return otherNames;
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		RegionalBloc other = (RegionalBloc) obj;
+		return Objects.equals(acronym, other.acronym)
+				&& Objects.equals(name, other.name)
+				&& Arrays.equals(otherAcronyms, other.otherAcronyms)
+				&& Arrays.equals(otherNames, other.otherNames);
 	}
 
-	public void setOtherNames(List<Object> otherNames) {
-		this.otherNames = otherNames;
+	@Override
+	public int hashCode() {
+		return Objects.hash(acronym, name, Arrays.hashCode(otherAcronyms), Arrays.hashCode(otherNames));
 	}
 
 }
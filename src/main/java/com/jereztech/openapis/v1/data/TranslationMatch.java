@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.data;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.jereztech.openapis.support.Constants;
+
+/**
+ * @author Joel Jerez
+ */
+@JsonFilter(Constants.FILTER_NAME)
+public class TranslationMatch {
+
+	private String code;
+	private String name;
+	private double score;
+
+	public TranslationMatch() {
+	}
+
+	public TranslationMatch(String code, String name, double score) {
+		this.code = code;
+		this.name = name;
+		this.score = score;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public void setCode(String code) {
+		this.code = code;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	public void setScore(double score) {
+		this.score = score;
+	}
+
+}
@@ -16,24 +16,46 @@
  ******************************************************************************/
 package com.jereztech.openapis.v1.services;
 
-import static com.jereztech.openapis.support.Constants.AND_SEPARATOR;
-import static com.jereztech.openapis.support.Constants.EQ_SEPARATOR;
+import static com.jereztech.openapis.support.Constants.COMMA_SEPARATOR;
+import static com.jereztech.openapis.support.Constants.FIRST_PAGE_INT;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
-import static org.apache.commons.lang3.StringUtils.strip;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
-import javax.annotation.PostConstruct;
-
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
+import com.jereztech.openapis.support.Accessor;
+import com.jereztech.openapis.support.ContentHash;
 import com.jereztech.openapis.support.JsonUtil;
 import com.jereztech.openapis.support.ProxyAccessor;
+import com.jereztech.openapis.support.ResourcePaths;
+import com.jereztech.openapis.support.ValuePool;
+import com.jereztech.openapis.support.filter.Filter;
+import com.jereztech.openapis.support.filter.FilterCompiler;
+import com.jereztech.openapis.v1.data.TranslationMatch;
 
 /**
  * Defines the logic to find all entities.
@@ -45,33 +67,234 @@ import com.jereztech.openapis.support.ProxyAccessor;
  */
 public abstract class AbstractService<E, T> implements IFindAllDelegate<E, T> {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractService.class);
+
+	private static final String JSON_EXTENSION = ".json";
+	private static final String ALL_LOCALES = "*";
+	private static final char LOCALE_SEPARATOR = '_';
+	private static final String SNAPSHOT_EXTENSION = ".snapshot";
+	private static final int MAX_VERSIONS = 16;
+
 	@Autowired
 	private JsonUtil jsonUtil;
 
-	private List<E> entities;
+	@Autowired
+	private TranslationCache translationCache;
+
+	@Autowired
+	private DatasetRegistry datasetRegistry;
+
+	@Value("${openapis.snapshot.dir}")
+	private String snapshotDir;
+
+	@Value("${openapis.data.dir}")
+	private String dataDir;
 
 	protected abstract Class<E> getEntityClass();
 
 	protected abstract String getEntitiesPath();
 
+	protected abstract String[] getIndexedAttributes();
+
+	/**
+	 * The attributes that identify an entity across versions, or null if there
+	 * are none.
+	 */
+	protected abstract String[] getKeyAttributes();
+
 	protected abstract Class<T> getTranslationClass();
 
 	protected abstract String getTranslationsPath();
 
+	protected abstract String[] getTranslationIndexedAttributes();
+
+	protected abstract String getTranslationCodeAttribute();
+
+	protected abstract String getTranslationNameAttribute();
+
 	/**
-	 * Defines the logic for reading source files.
+	 * Defines the logic for reading source files, which are classpath resources
+	 * unless the data directory has them. It is called at startup, and on every
+	 * reload, by the {@link DatasetLoader}, which publishes the new dataset in
+	 * the snapshot only once every service has read its own, so if reading fails
+	 * the current ones are kept. It is published only if its content changed,
+	 * and its version number is derived from the content, so a client keeps it
+	 * across restarts and nodes that serve the same data.
+	 * The entities share their repeated values through a pool of their own, so
+	 * it is dropped once they are read.
 	 */
-	@PostConstruct
 	@SuppressWarnings("unchecked")
-	private void init() {
-		try {
-			if (isNotBlank(getEntitiesPath())) {
-				entities = (List<E>) jsonUtil.fromJson(getEntitiesPath(),
-						jsonUtil.getObjectMapper().getTypeFactory().constructCollectionType(List.class, getEntityClass()));
+	public void load(Map<Object, Object> snapshot) throws IOException {
+		IndexedList<E> entities = null;
+		String version = null;
+		if (isNotBlank(getEntitiesPath())) {
+			Path entitiesFile = source(getEntitiesPath());
+			version = ContentHash.of(entitiesFile);
+			entities = new IndexedList<>((List<E>) jsonUtil.fromJson(entitiesFile,
+					jsonUtil.getObjectMapper().getTypeFactory().constructCollectionType(List.class, getEntityClass()), new ValuePool()), getIndexedAttributes());
+		}
+		Map<String, TranslationsFile> locales = isNotBlank(getTranslationsPath()) ? readLocales() : Collections.emptyMap();
+		Versions<E> current = versions();
+		if (current.latest.content.equals(Dataset.content(version, locales))) {
+			return;
+		}
+		Dataset<E> loaded = new Dataset<>(entities, version, locales);
+		// by age, a content that comes back is the newest again
+		Map<Long, Dataset<E>> all = new LinkedHashMap<>(current.all);
+		all.remove(loaded.number);
+		all.put(loaded.number, loaded);
+		Iterator<Long> oldest = all.keySet().iterator();
+		while (all.size() > MAX_VERSIONS) {
+			oldest.next();
+			oldest.remove();
+		}
+		snapshot.put(this, new Versions<>(loaded, Collections.unmodifiableMap(all)));
+	}
+
+	/**
+	 * Resolves a source file or directory, from the data directory if it has
+	 * it, so the data can be patched in a packaged deployment too.
+	 */
+	protected Path source(String location) throws IOException {
+		if (isNotBlank(dataDir)) {
+			Path path = Paths.get(dataDir, location);
+			if (Files.exists(path)) {
+				return path;
+			}
+		}
+		return ResourcePaths.get(location);
+	}
+
+	/**
+	 * The datasets of the snapshot.
+	 */
+	@SuppressWarnings("unchecked")
+	private Versions<E> versions() {
+		return datasetRegistry.get(this, (Versions<E>) Versions.EMPTY);
+	}
+
+	private Dataset<E> dataset() {
+		return versions().latest;
+	}
+
+	/**
+	 * The directories of the source files, watched for changes.
+	 */
+	public List<Path> getSourceDirectories() throws IOException {
+		List<Path> directories = new ArrayList<>();
+		if (isNotBlank(getEntitiesPath())) {
+			directories.add(source(getEntitiesPath()).getParent());
+		}
+		if (isNotBlank(getTranslationsPath())) {
+			directories.add(source(getTranslationsPath()));
+		}
+		return directories;
+	}
+
+	/**
+	 * Registers the locales that have a translations file, so unknown locales can
+	 * be rejected and versioned without touching the filesystem. The tables are
+	 * mapped from the snapshot of the files, which is taken first if it is
+	 * missing or stale. The snapshot is fingerprinted by the size and the last
+	 * modified time of every file, so a valid one is mapped without reading
+	 * them. Only when it is taken are the files hashed, and its versions are
+	 * checked against them, since they are served as ETags.
+	 */
+	private Map<String, TranslationsFile> readLocales() throws IOException {
+		Path translationsDirectory = source(getTranslationsPath());
+		Map<String, Path> files = new TreeMap<>();
+		try (Stream<Path> list = Files.list(translationsDirectory)) {
+			list.filter(file -> file.getFileName().toString().endsWith(JSON_EXTENSION)).forEach(file -> {
+				String fileName = file.getFileName().toString();
+				files.put(fileName.substring(0, fileName.length() - JSON_EXTENSION.length()), file);
+			});
+		}
+		List<String> fingerprint = new ArrayList<>();
+		fingerprint.add(getTranslationCodeAttribute());
+		fingerprint.add(getTranslationNameAttribute());
+		for (Map.Entry<String, Path> file : files.entrySet()) {
+			fingerprint.add(file.getKey() + ":" + Files.size(file.getValue()) + ":" + Files.getLastModifiedTime(file.getValue()).toMillis());
+		}
+		String snapshotVersion = ContentHash.of(fingerprint.toArray(new String[0]));
+		Path snapshotPath = Paths.get(snapshotDir, ContentHash.of(translationsDirectory.toUri().toString()) + SNAPSHOT_EXTENSION);
+		TranslationSnapshot snapshot = TranslationSnapshot.read(snapshotPath, snapshotVersion);
+		if (snapshot == null || !snapshot.getLocales().keySet().equals(files.keySet())) {
+			Map<String, String> versions = new HashMap<>();
+			for (Map.Entry<String, Path> file : files.entrySet()) {
+				versions.put(file.getKey(), ContentHash.of(file.getValue()));
+			}
+			snapshot = takeSnapshot(files, versions);
+			try {
+				snapshot.write(snapshotPath, snapshotVersion);
+				TranslationSnapshot mapped = matches(TranslationSnapshot.read(snapshotPath, snapshotVersion), versions);
+				snapshot = mapped != null ? mapped : snapshot;
+			} catch (IOException e) {
+				LOGGER.warn("Cannot write the snapshot {}, the translations stay on the heap", snapshotPath, e);
+			}
+		}
+		return snapshot.getLocales();
+	}
+
+	/**
+	 * The snapshot if it has exactly the locales and versions of the files, or
+	 * else null.
+	 */
+	private static TranslationSnapshot matches(TranslationSnapshot snapshot, Map<String, String> versions) {
+		if (snapshot == null || !snapshot.getLocales().keySet().equals(versions.keySet())) {
+			return null;
+		}
+		for (Map.Entry<String, TranslationsFile> locale : snapshot.getLocales().entrySet()) {
+			if (!locale.getValue().getVersion().equals(versions.get(locale.getKey()))) {
+				return null;
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Encodes the translations files by columns. Files with the same content are
+	 * deduplicated by their hash, so their locales are aliases of the first one
+	 * and share its table. The tables are bound to the dictionary once all the
+	 * codes are numbered.
+	 */
+	private TranslationSnapshot takeSnapshot(Map<String, Path> files, Map<String, String> versions) throws IOException {
+		TranslationTable.Dictionary.Builder builder = new TranslationTable.Dictionary.Builder();
+		Map<String, ByteBuffer> columns = new HashMap<>();
+		for (Map.Entry<String, Path> file : files.entrySet()) {
+			String version = versions.get(file.getKey());
+			if (!columns.containsKey(version)) {
+				columns.put(version, readTable(file.getValue(), builder));
 			}
-		} catch (Exception e) {
-			e.printStackTrace();
 		}
+		TranslationTable.Dictionary dictionary = builder.build();
+		Map<String, TranslationsFile> registry = new HashMap<>();
+		Map<String, TranslationsFile> contents = new HashMap<>();
+		for (Map.Entry<String, Path> file : files.entrySet()) {
+			String locale = file.getKey();
+			String version = versions.get(locale);
+			TranslationsFile translationsFile = contents.get(version);
+			if (translationsFile == null) {
+				translationsFile = new TranslationsFile(locale, Files.size(file.getValue()), version, new TranslationTable(dictionary, columns.get(version)));
+				contents.put(version, translationsFile);
+			}
+			registry.put(locale, translationsFile);
+		}
+		return new TranslationSnapshot(dictionary, Collections.unmodifiableMap(registry));
+	}
+
+	@Override
+	public String getVersion() {
+		return version(dataset());
+	}
+
+	@Override
+	public long getDatasetVersion() {
+		return dataset().number;
+	}
+
+	@Override
+	public String getTranslationsVersion(String locale) {
+		return translationsFile(locale).getVersion();
 	}
 
 	/**
@@ -81,7 +304,7 @@ public abstract class AbstractService<E, T> implements IFindAllDelegate<E, T> {
 	@Override
 	@SuppressWarnings("unchecked")
 	public List<E> findAll(Integer pageNumber, Integer pageSize, String filter) {
-		return (List<E>) filter(pageNumber, pageSize, filter, entities);
+		return (List<E>) find(pageNumber, pageSize, filter, entities(dataset()));
 	}
 
 	/**
@@ -91,30 +314,399 @@ public abstract class AbstractService<E, T> implements IFindAllDelegate<E, T> {
 	@Override
 	@SuppressWarnings("unchecked")
 	public List<T> findAllTranslations(Integer pageNumber, Integer pageSize, String filter, String locale) {
+		return (List<T>) find(pageNumber, pageSize, filter, translations(locale));
+	}
+
+	/**
+	 * Same as findAll, but the entities are filtered as the stream is consumed.
+	 * The filter is validated before returning.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Stream<E> streamAll(Integer pageNumber, Integer pageSize, String filter) {
+		return (Stream<E>) filter(pageNumber, pageSize, filter, entities(dataset()));
+	}
+
+	/**
+	 * Same as findAllTranslations, but the entity translations are filtered as
+	 * the stream is consumed. The filter and locale are validated before
+	 * returning.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Stream<T> streamAllTranslations(Integer pageNumber, Integer pageSize, String filter, String locale) {
+		return (Stream<T>) filter(pageNumber, pageSize, filter, translations(locale));
+	}
+
+	/**
+	 * Defines the logic to find the entities that match the filter and were
+	 * added, changed or removed since the version of the dataset. A resource
+	 * that only has translations has no entities to compare.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Delta<E> findAllSince(long since, String filter) {
+		Versions<E> versions = versions();
+		Dataset<E> current = versions.latest;
+		IndexedList<E> currentEntities = entities(current);
+		if (since == current.number) {
+			return Delta.empty(since);
+		}
+		Dataset<E> previous = versions.get(since);
+		return Delta.diff(jsonUtil.getObjectMapper(), since, current.number, (List<E>) find(FIRST_PAGE_INT, Integer.MAX_VALUE, filter, entities(previous)),
+				(List<E>) find(FIRST_PAGE_INT, Integer.MAX_VALUE, filter, currentEntities), getKeyAttributes());
+	}
+
+	/**
+	 * Defines the logic to find the entity translations by locale that match the
+	 * filter and were added, changed or removed since the version of the dataset.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Delta<T> findAllTranslationsSince(long since, String filter, String locale) {
+		Versions<E> versions = versions();
+		Dataset<E> current = versions.latest;
+		TranslationsFile currentFile = translationsFile(current, locale);
+		if (since == current.number) {
+			return Delta.empty(since);
+		}
+		Dataset<E> previous = versions.get(since);
+		TranslationsFile previousFile = findTranslationsFile(previous, locale);
+		if (previousFile != null && previousFile.getVersion().equals(currentFile.getVersion())) {
+			return new Delta<>(since, current.number, Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+		}
+		List<T> previousRows = previousFile != null ? (List<T>) find(FIRST_PAGE_INT, Integer.MAX_VALUE, filter, translations(previousFile))
+				: Collections.emptyList();
+		return Delta.diff(jsonUtil.getObjectMapper(), since, current.number, previousRows,
+				(List<T>) find(FIRST_PAGE_INT, Integer.MAX_VALUE, filter, translations(currentFile)), new String[] { getTranslationCodeAttribute() });
+	}
+
+	/**
+	 * Defines the logic to find the page of entities that match the filter
+	 * starting at the cursor, the first page if the cursor is blank.
+	 */
+	@Override
+	public CursorPage<E> findAllByCursor(String cursor, Integer pageSize, String filter) {
+		Dataset<E> current = dataset();
+		return page(cursor, pageSize, filter, entities(current), version(current));
+	}
+
+	/**
+	 * Defines the logic to find the page of entity translations by locale that
+	 * match the filter starting at the cursor, the first page if the cursor is
+	 * blank.
+	 */
+	@Override
+	public CursorPage<T> findAllTranslationsByCursor(String cursor, Integer pageSize, String filter, String locale) {
+		TranslationsFile translationsFile = translationsFile(locale);
+		return page(cursor, pageSize, filter, translations(translationsFile), translationsFile.getVersion());
+	}
+
+	/**
+	 * Defines the logic to find the entity translations by locale whose name, or
+	 * one of its words, starts with the prefix ignoring case and accents.
+	 */
+	@Override
+	public List<T> findAllTranslationsByPrefix(Integer limit, String prefix, String locale) {
+		validateLimit(limit);
+		return translations(locale).prefixIndex(getTranslationNameAttribute()).search(prefix, limit);
+	}
+
+	/**
+	 * Defines the logic to find the codes whose translated name, in any locale,
+	 * matches the name. Misspelled names are matched through their trigrams and
+	 * the candidates are ranked by score.
+	 */
+	@Override
+	public List<TranslationMatch> findAllTranslationsByName(Integer limit, String name) {
 		if (isBlank(getTranslationsPath())) {
-			throw new UnsupportedOperationException();
+			throw new IllegalArgumentException("Unsupported translations.");
 		}
-		try {
-			List<T> translations = (List<T>) jsonUtil.fromJson(String.format("%s/%s.json", getTranslationsPath(), locale),
-					jsonUtil.getObjectMapper().getTypeFactory().constructCollectionType(List.class, getTranslationClass()));
-			return (List<T>) filter(pageNumber, pageSize, filter, translations);
-		} catch (Exception e) {
+		validateLimit(limit);
+		return nameIndex().search(name, limit);
+	}
+
+	/**
+	 * Defines the logic to find the name, in each of the locales, of the entity
+	 * translations that match the filter, mapped by code and then by locale. The
+	 * locales are comma separated, or * for all of them, and their distinct
+	 * tables are filtered in parallel. The tables of all the locales are scanned
+	 * once, so only those already cached are read from the cache.
+	 */
+	@Override
+	public Map<String, Map<String, String>> findAllTranslationsByLocales(String filter, String locales) {
+		Dataset<E> current = dataset();
+		List<String> localeList = parseLocales(current, locales);
+		boolean scan = ALL_LOCALES.equals(locales.trim());
+		Filter compiled = FilterCompiler.compile(filter);
+		Accessor codeAccessor = ProxyAccessor.accessor(getTranslationCodeAttribute());
+		Accessor nameAccessor = ProxyAccessor.accessor(getTranslationNameAttribute());
+		Map<TranslationsFile, List<T>> tables = localeList.stream().map(locale -> translationsFile(current, locale)).distinct().parallel()
+				.collect(toMap(Function.identity(), translationsFile -> {
+					QueryPlan<T> plan = QueryPlanner.plan(scan ? peekTranslations(translationsFile) : translations(translationsFile), compiled);
+					return plan.isExact() ? plan.getCandidates() : plan.getCandidates().stream().filter(plan.getResidual()).collect(toList());
+				}));
+		Map<String, Map<String, String>> matrix = new TreeMap<>();
+		for (String locale : localeList) {
+			for (T translation : tables.get(translationsFile(current, locale))) {
+				Object code = codeAccessor.get(translation);
+				Object name = nameAccessor.get(translation);
+				if (code instanceof String && name instanceof String) {
+					matrix.computeIfAbsent((String) code, key -> new LinkedHashMap<>()).put(locale, (String) name);
+				}
+			}
+		}
+		return matrix;
+	}
+
+	/**
+	 * Parses the locales, where * stands for all the available locales.
+	 */
+	private List<String> parseLocales(Dataset<E> current, String locales) {
+		if (isBlank(getTranslationsPath())) {
+			throw new IllegalArgumentException("Unsupported translations.");
+		}
+		if (isBlank(locales)) {
+			throw new IllegalArgumentException("Invalid locale.");
+		}
+		if (ALL_LOCALES.equals(locales.trim())) {
+			return current.locales.keySet().stream().sorted().collect(toList());
+		}
+		return Stream.of(locales.split(COMMA_SEPARATOR)).map(String::trim).distinct().collect(toList());
+	}
+
+	/**
+	 * Builds the index of the names of every locale of the dataset on first use.
+	 * It reads the columns of the tables, not the cached rows, so they do not
+	 * evict the hot ones.
+	 */
+	private NameIndex nameIndex() {
+		Dataset<E> current = dataset();
+		if (current.nameIndex == null) {
+			synchronized (current) {
+				if (current.nameIndex == null) {
+					NameIndex.Builder builder = new NameIndex.Builder();
+					current.locales.values().stream().distinct().sorted(Comparator.comparing(TranslationsFile::getLocale))
+							.forEach(file -> builder.add(file.getTable()));
+					current.nameIndex = builder.build();
+				}
+			}
+		}
+		return current.nameIndex;
+	}
+
+	private IndexedList<T> translations(String locale) {
+		return translations(translationsFile(locale));
+	}
+
+	/**
+	 * The rows of the table are materialized and indexed for the queries, and
+	 * cached by its content, so the aliases of a locale share them.
+	 */
+	private IndexedList<T> translations(TranslationsFile translationsFile) {
+		return translationCache.get(getTranslationsPath(), translationsFile.getVersion(), translationsFile.getBytes(), () -> materialize(translationsFile.getTable()));
+	}
+
+	private IndexedList<T> peekTranslations(TranslationsFile translationsFile) {
+		return translationCache.peek(getTranslationsPath(), translationsFile.getVersion(), () -> materialize(translationsFile.getTable()));
+	}
+
+	private TranslationsFile translationsFile(String locale) {
+		return translationsFile(dataset(), locale);
+	}
+
+	/**
+	 * Finds the file of the locale or else of its nearest parent, falling back
+	 * like CLDR does: sr_Cyrl_RS, sr_Cyrl, sr.
+	 */
+	private TranslationsFile translationsFile(Dataset<E> current, String locale) {
+		if (isBlank(getTranslationsPath())) {
+			throw new IllegalArgumentException("Unsupported translations.");
+		}
+		TranslationsFile translationsFile = findTranslationsFile(current, locale);
+		if (translationsFile == null) {
 			throw new IllegalArgumentException("Invalid locale.");
 		}
+		return translationsFile;
+	}
+
+	private static TranslationsFile findTranslationsFile(Dataset<?> current, String locale) {
+		String candidate = locale;
+		while (candidate != null) {
+			TranslationsFile translationsFile = current.locales.get(candidate);
+			if (translationsFile != null) {
+				return translationsFile;
+			}
+			int separator = candidate.lastIndexOf(LOCALE_SEPARATOR);
+			candidate = separator > 0 ? candidate.substring(0, separator) : null;
+		}
+		return null;
+	}
+
+	private ByteBuffer readTable(Path file, TranslationTable.Dictionary.Builder dictionary) throws IOException {
+		List<?> translations = (List<?>) jsonUtil.fromJson(file,
+				jsonUtil.getObjectMapper().getTypeFactory().constructCollectionType(List.class, getTranslationClass()));
+		return TranslationTable.encode(translations, ProxyAccessor.accessor(getTranslationCodeAttribute()),
+				ProxyAccessor.accessor(getTranslationNameAttribute()), dictionary);
+	}
+
+	private IndexedList<T> materialize(TranslationTable table) {
+		try {
+			Field codeField = FieldUtils.getField(getTranslationClass(), getTranslationCodeAttribute(), true);
+			Field nameField = FieldUtils.getField(getTranslationClass(), getTranslationNameAttribute(), true);
+			List<T> rows = new ArrayList<>(table.size());
+			for (int row = 0; row < table.size(); row++) {
+				T translation = getTranslationClass().newInstance();
+				codeField.set(translation, table.getCode(row));
+				nameField.set(translation, table.getName(row));
+				rows.add(translation);
+			}
+			return new IndexedList<>(rows, getTranslationIndexedAttributes());
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Apply filter to the ResultSet. The pages of an exact plan are views of the
+	 * candidates, not copies.
+	 */
+	private List<?> find(Integer pageNumber, Integer pageSize, String filter, IndexedList<?> source) {
+		QueryPlan<?> plan = QueryPlanner.plan(source, FilterCompiler.compile(filter));
+		return plan.isExact() ? slice(plan, pageNumber, pageSize) : scan(plan, pageNumber, pageSize).collect(toList());
+	}
+
+	/**
+	 * Same as find, but the ResultSet is filtered as the stream is consumed.
+	 */
+	private Stream<?> filter(Integer pageNumber, Integer pageSize, String filter, IndexedList<?> source) {
+		QueryPlan<?> plan = QueryPlanner.plan(source, FilterCompiler.compile(filter));
+		return plan.isExact() ? slice(plan, pageNumber, pageSize).stream() : scan(plan, pageNumber, pageSize);
+	}
+
+	private static List<?> slice(QueryPlan<?> plan, Integer pageNumber, Integer pageSize) {
+		validatePage(pageNumber, pageSize);
+		List<?> candidates = plan.getCandidates();
+		int from = (int) Math.min((long) pageSize * pageNumber, candidates.size());
+		return candidates.subList(from, (int) Math.min((long) from + pageSize, candidates.size()));
+	}
+
+	private static Stream<?> scan(QueryPlan<?> plan, Integer pageNumber, Integer pageSize) {
+		validatePage(pageNumber, pageSize);
+		return plan.getCandidates().stream().filter(plan.getResidual()).skip((long) pageSize * pageNumber).limit(pageSize);
+	}
+
+	private static <R> CursorPage<R> page(String cursor, Integer pageSize, String filter, IndexedList<R> source, String version) {
+		if (pageSize < 1) {
+			// an empty page would hand out the same cursor again
+			throw new IllegalArgumentException("Invalid page.");
+		}
+		Filter compiled = FilterCompiler.compile(filter);
+		return new CursorPage<>(QueryPlanner.plan(source, compiled), cursor, pageSize, ContentHash.of(version, compiled.toString(), pageSize.toString()));
+	}
+
+	private static void validatePage(Integer pageNumber, Integer pageSize) {
+		if (pageNumber < 0 || pageSize < 0) {
+			throw new IllegalArgumentException("Invalid page.");
+		}
+	}
+
+	private static void validateLimit(Integer limit) {
+		if (limit < 0) {
+			throw new IllegalArgumentException("Invalid limit.");
+		}
+	}
+
+	/**
+	 * The entities of the dataset. A resource that only has translations cannot
+	 * be queried for them.
+	 */
+	private static <E> IndexedList<E> entities(Dataset<E> current) {
+		if (current.entities == null) {
+			throw new IllegalArgumentException("Unsupported entities.");
+		}
+		return current.entities;
+	}
+
+	private static String version(Dataset<?> current) {
+		if (current.version == null) {
+			throw new IllegalArgumentException("Unsupported entities.");
+		}
+		return current.version;
 	}
 
 	/**
-	 * Apply filter to the ResultSet.
+	 * The dataset of a service in the snapshot, along with the previous ones.
 	 */
-	private List<?> filter(Integer pageNumber, Integer pageSize, String filter, List<?> source) {
-		return source.stream().filter(item -> {
-			if (isBlank(filter)) {
-				return true;
+	private static class Versions<E> {
+
+		private static final Versions<?> EMPTY = new Versions<>(new Dataset<>(null, null, Collections.emptyMap()), Collections.emptyMap());
+
+		private final Dataset<E> latest;
+
+		/**
+		 * The last datasets by version, from the oldest to the latest one, to
+		 * compute the deltas of clients that are behind.
+		 */
+		private final Map<Long, Dataset<E>> all;
+
+		private Versions(Dataset<E> latest, Map<Long, Dataset<E>> all) {
+			this.latest = latest;
+			this.all = all;
+		}
+
+		private Dataset<E> get(long number) {
+			Dataset<E> dataset = all.get(number);
+			if (dataset == null) {
+				throw new IllegalArgumentException("Invalid version.");
 			}
-			Map<String, String> expressions = Arrays.stream(strip(filter).split(AND_SEPARATOR)).map(exp -> exp.split(EQ_SEPARATOR))
-					.collect(toMap(key -> key[0], value -> value[1]));
-			return expressions.entrySet().stream().allMatch(entry -> entry.getValue().equals(ProxyAccessor.proxify(item, entry.getKey())));
-		}).skip(pageSize * pageNumber).limit(pageSize).collect(toList());
+			return dataset;
+		}
+
+	}
+
+	private static class Dataset<E> {
+
+		/**
+		 * The version number of the dataset, derived from its content hash.
+		 */
+		private final long number;
+
+		/**
+		 * The content hash of all the source files.
+		 */
+		private final String content;
+
+		private final IndexedList<E> entities;
+
+		/**
+		 * The content hash of the entities source file.
+		 */
+		private final String version;
+
+		/**
+		 * The available locales mapped to their source file. Locales whose files
+		 * have the same content share one.
+		 */
+		private final Map<String, TranslationsFile> locales;
+
+		private volatile NameIndex nameIndex;
+
+		private Dataset(IndexedList<E> entities, String version, Map<String, TranslationsFile> locales) {
+			this.content = content(version, locales);
+			this.number = ContentHash.toNumber(content);
+			this.entities = entities;
+			this.version = version;
+			this.locales = locales;
+		}
+
+		private static String content(String version, Map<String, TranslationsFile> locales) {
+			List<String> parts = new ArrayList<>();
+			parts.add(String.valueOf(version));
+			locales.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(locale -> parts.add(locale.getKey() + ":" + locale.getValue().getVersion()));
+			return ContentHash.of(parts.toArray(new String[0]));
+		}
+
 	}
 
 }
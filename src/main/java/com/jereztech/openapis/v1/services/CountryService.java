@@ -16,8 +16,25 @@
  ******************************************************************************/
 package com.jereztech.openapis.v1.services;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.jereztech.openapis.support.ContentHash;
 import com.jereztech.openapis.v1.data.Country;
 import com.jereztech.openapis.v1.data.CountryTranslation;
 
@@ -29,6 +46,90 @@ import com.jereztech.openapis.v1.data.CountryTranslation;
 @Service
 public class CountryService extends AbstractService<Country, CountryTranslation> {
 
+	private static final String FLAGS_PATH = "v1/countries/flags";
+	private static final String FLAG_EXTENSION = ".png";
+
+	/**
+	 * The sizes in pixels of the resized flags and sprite sheets.
+	 */
+	public static final List<Integer> FLAG_SIZES = Collections.unmodifiableList(Arrays.asList(16, 32, 64));
+
+	private static final Flags NO_FLAGS = new Flags(Collections.emptyMap());
+
+	@Autowired
+	private DatasetRegistry datasetRegistry;
+
+	/**
+	 * Defines the logic for reading the source files and the flags, which are
+	 * published in the same snapshot as the dataset.
+	 */
+	@Override
+	public void load(Map<Object, Object> snapshot) throws IOException {
+		Map<String, Flag> registry = new HashMap<>();
+		try (Stream<Path> files = Files.list(source(FLAGS_PATH))) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				String fileName = file.getFileName().toString();
+				if (fileName.endsWith(FLAG_EXTENSION)) {
+					byte[] bytes = Files.readAllBytes(file);
+					registry.put(fileName.substring(0, fileName.length() - FLAG_EXTENSION.length()).toUpperCase(Locale.ROOT),
+							new Flag(bytes, ContentHash.of(bytes), Files.getLastModifiedTime(file).toMillis()));
+				}
+			}
+		}
+		Flags loaded = new Flags(Collections.unmodifiableMap(registry));
+		// rendered in parallel before anything is published, so a broken flag
+		// fails the load and the current dataset and flags are kept
+		try {
+			CompletableFuture.allOf(FLAG_SIZES.stream().map(size -> CompletableFuture.runAsync(() -> loaded.flagSet(size))).toArray(CompletableFuture[]::new))
+					.join();
+		} catch (CompletionException e) {
+			throw new IllegalStateException("Cannot render the flags.", e.getCause());
+		}
+		super.load(snapshot);
+		snapshot.put(Flags.class, loaded);
+	}
+
+	@Override
+	public List<Path> getSourceDirectories() throws IOException {
+		List<Path> directories = super.getSourceDirectories();
+		directories.add(source(FLAGS_PATH));
+		return directories;
+	}
+
+	/**
+	 * Defines the logic to find the flag of a country, or null if there is none.
+	 */
+	public Flag findFlag(String alpha2Code) {
+		return flags().originals.get(alpha2Code.toUpperCase(Locale.ROOT));
+	}
+
+	/**
+	 * Defines the logic to find the flag of a country resized to one of the
+	 * standard sizes, or null if there is none.
+	 */
+	public Flag findFlag(String alpha2Code, Integer size) {
+		return flagSet(size).getFlag(alpha2Code.toUpperCase(Locale.ROOT));
+	}
+
+	/**
+	 * Defines the logic to find the sprite sheet of all the flags in one of the
+	 * standard sizes, its manifest holds the offset of each flag.
+	 */
+	public FlagSet findFlagSprite(Integer size) {
+		return flagSet(size);
+	}
+
+	private FlagSet flagSet(Integer size) {
+		if (!FLAG_SIZES.contains(size)) {
+			throw new IllegalArgumentException("Invalid size.");
+		}
+		return flags().flagSet(size);
+	}
+
+	private Flags flags() {
+		return datasetRegistry.get(Flags.class, NO_FLAGS);
+	}
+
 	@Override
 	protected Class<Country> getEntityClass() {
 		return Country.class;
@@ -36,7 +137,17 @@ public class CountryService extends AbstractService<Country, CountryTranslation>
 
 	@Override
 	protected String getEntitiesPath() {
-		return "src/main/resources/v1/countries/countries.json";
+		return "v1/countries/countries.json";
+	}
+
+	@Override
+	protected String[] getIndexedAttributes() {
+		return new String[] { "alpha2Code", "alpha3Code", "region", "subregion" };
+	}
+
+	@Override
+	protected String[] getKeyAttributes() {
+		return new String[] { "alpha2Code" };
 	}
 
 	@Override
@@ -46,7 +157,44 @@ public class CountryService extends AbstractService<Country, CountryTranslation>
 
 	@Override
 	protected String getTranslationsPath() {
-		return "src/main/resources/v1/countries/translations";
+		return "v1/countries/translations";
+	}
+
+	@Override
+	protected String[] getTranslationIndexedAttributes() {
+		return new String[] { "alpha2Code" };
+	}
+
+	@Override
+	protected String getTranslationCodeAttribute() {
+		return "alpha2Code";
+	}
+
+	@Override
+	protected String getTranslationNameAttribute() {
+		return "country";
+	}
+
+	private static class Flags {
+
+		/**
+		 * The flags by alpha2Code, preloaded since they add up to a couple of MB.
+		 */
+		private final Map<String, Flag> originals;
+
+		/**
+		 * The resized flags by size, rendered once.
+		 */
+		private final ConcurrentMap<Integer, FlagSet> flagSets = new ConcurrentHashMap<>();
+
+		private Flags(Map<String, Flag> originals) {
+			this.originals = originals;
+		}
+
+		private FlagSet flagSet(Integer size) {
+			return flagSets.computeIfAbsent(size, key -> FlagSet.render(originals, key));
+		}
+
 	}
 
 }
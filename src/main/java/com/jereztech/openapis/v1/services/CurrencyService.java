@@ -35,7 +35,17 @@ public class CurrencyService extends AbstractService<Currency, Void> {
 
 	@Override
 	protected String getEntitiesPath() {
-		return "src/main/resources/v1/currencies/currencies.json";
+		return "v1/currencies/currencies.json";
+	}
+
+	@Override
+	protected String[] getIndexedAttributes() {
+		return new String[] { "code", "countryAlpha3Code" };
+	}
+
+	@Override
+	protected String[] getKeyAttributes() {
+		return new String[] { "code", "countryAlpha3Code" };
 	}
 
 	@Override
@@ -48,4 +58,19 @@ public class CurrencyService extends AbstractService<Currency, Void> {
 		return null;
 	}
 
+	@Override
+	protected String[] getTranslationIndexedAttributes() {
+		return null;
+	}
+
+	@Override
+	protected String getTranslationCodeAttribute() {
+		return null;
+	}
+
+	@Override
+	protected String getTranslationNameAttribute() {
+		return null;
+	}
+
 }
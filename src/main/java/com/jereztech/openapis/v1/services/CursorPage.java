@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.jereztech.openapis.support.filter.Filter;
+
+/**
+ * A page of rows that resumes the scan of a {@link QueryPlan} where the
+ * previous page stopped. The position is handed to clients as an opaque
+ * cursor, bound to the version of the data, the filter and the page size it
+ * was issued for, so the next page starts in constant time however deep it is
+ * and a cursor reused with another page size is rejected.
+ * 
+ * @author Joel Jerez
+ *
+ * @param <T> the Row Class
+ */
+public class CursorPage<T> implements Iterator<T> {
+
+	private static final String SEPARATOR = ".";
+
+	private final List<T> candidates;
+	private final Filter residual;
+	private final int pageSize;
+	private final String fingerprint;
+	private int position;
+	private int count;
+	private T next;
+
+	public CursorPage(QueryPlan<T> plan, String cursor, int pageSize, String fingerprint) {
+		this.candidates = plan.getCandidates();
+		this.residual = plan.getResidual();
+		this.pageSize = pageSize;
+		this.fingerprint = fingerprint;
+		this.position = position(cursor, fingerprint);
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (next == null && count < pageSize && position < candidates.size()) {
+			T candidate = candidates.get(position++);
+			if (residual.test(candidate)) {
+				next = candidate;
+			}
+		}
+		return next != null;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		T row = next;
+		next = null;
+		count++;
+		return row;
+	}
+
+	/**
+	 * The cursor of the next page once this one is consumed, or null if the scan
+	 * is over.
+	 */
+	public String getNextCursor() {
+		if (count < pageSize || position >= candidates.size()) {
+			return null;
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString((position + SEPARATOR + fingerprint).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes the position of a cursor. A blank cursor starts from the beginning.
+	 */
+	private static int position(String cursor, String fingerprint) {
+		if (cursor == null || cursor.trim().isEmpty()) {
+			return 0;
+		}
+		try {
+			String token = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+			int separator = token.indexOf(SEPARATOR);
+			if (separator > 0 && token.substring(separator + 1).equals(fingerprint)) {
+				int position = Integer.parseInt(token.substring(0, separator));
+				if (position >= 0) {
+					return position;
+				}
+			}
+		} catch (IllegalArgumentException e) {
+			// not a cursor, NumberFormatException included
+		}
+		throw new IllegalArgumentException("Invalid cursor.");
+	}
+
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the datasets of every service concurrently at startup, and again when
+ * they are reloaded, and publishes them together as one snapshot. The startup
+ * fails if any of them cannot be loaded, so the application is never ready
+ * with a missing dataset, while a failed reload keeps the current snapshot.
+ * 
+ * @author Joel Jerez
+ */
+@Component
+public class DatasetLoader {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DatasetLoader.class);
+
+	private final DatasetRegistry datasetRegistry;
+	private final List<AbstractService<?, ?>> services;
+
+	public DatasetLoader(DatasetRegistry datasetRegistry, List<AbstractService<?, ?>> services) {
+		this.datasetRegistry = datasetRegistry;
+		this.services = services;
+	}
+
+	@PostConstruct
+	public synchronized void load() {
+		// the services replace their parts of the current snapshot, or keep them if unchanged
+		Map<Object, Object> snapshot = new ConcurrentHashMap<>(datasetRegistry.snapshot());
+		List<CompletableFuture<Void>> loads = services.stream().map(service -> CompletableFuture.runAsync(() -> load(service, snapshot)))
+				.collect(Collectors.toList());
+		IllegalStateException failure = null;
+		for (CompletableFuture<Void> load : loads) {
+			try {
+				load.join();
+			} catch (CompletionException e) {
+				if (failure == null) {
+					failure = new IllegalStateException("Cannot load the datasets.", e.getCause());
+				} else {
+					failure.addSuppressed(e.getCause());
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		datasetRegistry.publish(new HashMap<>(snapshot));
+	}
+
+	private static void load(AbstractService<?, ?> service, Map<Object, Object> snapshot) {
+		String name = service.getClass().getSimpleName();
+		long start = System.nanoTime();
+		try {
+			service.load(snapshot);
+		} catch (IOException | RuntimeException e) {
+			throw new IllegalStateException("Cannot load " + name + ".", e);
+		}
+		LOGGER.info("Loaded {} in {} ms", name, (System.nanoTime() - start) / 1_000_000);
+	}
+
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the datasets of every service, and their parts, as one snapshot that
+ * is swapped as a whole when they are reloaded. So a request never mixes the
+ * data of two loads, as long as it reads one snapshot, which is pinned to its
+ * threads if it runs on several.
+ * 
+ * @author Joel Jerez
+ */
+@Component
+public class DatasetRegistry {
+
+	private final AtomicReference<Map<Object, Object>> current = new AtomicReference<>(Collections.emptyMap());
+
+	private final ThreadLocal<Map<Object, Object>> pinned = new ThreadLocal<>();
+
+	/**
+	 * The snapshot pinned to the current thread, or else the current one.
+	 */
+	public Map<Object, Object> snapshot() {
+		Map<Object, Object> snapshot = pinned.get();
+		return snapshot != null ? snapshot : current.get();
+	}
+
+	/**
+	 * Runs the task with the snapshot pinned to the current thread, so every
+	 * part it reads belongs to it even if the datasets are reloaded meanwhile.
+	 */
+	public <R> R pin(Map<Object, Object> snapshot, Supplier<R> task) {
+		Map<Object, Object> previous = pinned.get();
+		pinned.set(snapshot);
+		try {
+			return task.get();
+		} finally {
+			if (previous != null) {
+				pinned.set(previous);
+			} else {
+				pinned.remove();
+			}
+		}
+	}
+
+	/**
+	 * The part of the snapshot, or the default value if it was never loaded.
+	 */
+	@SuppressWarnings("unchecked")
+	<V> V get(Object key, V defaultValue) {
+		Object value = snapshot().get(key);
+		return value != null ? (V) value : defaultValue;
+	}
+
+	/**
+	 * Publishes the parts as the new snapshot.
+	 */
+	void publish(Map<Object, Object> parts) {
+		current.set(Collections.unmodifiableMap(parts));
+	}
+
+}
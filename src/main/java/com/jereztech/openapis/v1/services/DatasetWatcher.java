@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reloads the datasets when their source files change, so patched data is
+ * served without a restart. Only the sources on the default file system can be
+ * watched, not those in a jar, so a packaged deployment patches the data
+ * directory instead, or triggers the reload through its end-point.
+ * 
+ * @author Joel Jerez
+ */
+@Component
+public class DatasetWatcher {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DatasetWatcher.class);
+
+	private static final long QUIET_PERIOD_MILLIS = 1000;
+
+	private final DatasetLoader loader;
+	private final List<AbstractService<?, ?>> services;
+	private final boolean enabled;
+
+	private WatchService watchService;
+
+	public DatasetWatcher(DatasetLoader loader, List<AbstractService<?, ?>> services, @Value("${openapis.reload.watch}") boolean enabled) {
+		this.loader = loader;
+		this.services = services;
+		this.enabled = enabled;
+	}
+
+	@PostConstruct
+	private void start() throws IOException {
+		if (!enabled) {
+			return;
+		}
+		watchService = FileSystems.getDefault().newWatchService();
+		for (AbstractService<?, ?> service : services) {
+			for (Path directory : service.getSourceDirectories()) {
+				if (directory.getFileSystem() == FileSystems.getDefault()) {
+					directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+				}
+			}
+		}
+		Thread watcher = new Thread(this::watch, "dataset-watcher");
+		watcher.setDaemon(true);
+		watcher.start();
+	}
+
+	@PreDestroy
+	private void stop() throws IOException {
+		if (watchService != null) {
+			watchService.close();
+		}
+	}
+
+	private void watch() {
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				// a patch usually touches several files, so it waits for them to settle
+				do {
+					key.pollEvents();
+					key.reset();
+				} while ((key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null);
+				try {
+					loader.load();
+				} catch (IllegalStateException e) {
+					LOGGER.error("Cannot reload the datasets, the current ones are kept.", e);
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// stopped
+		}
+	}
+
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+/**
+ * The rows added, changed and removed between two versions of a dataset.
+ * Rows are matched by their key attributes, or by their whole content if they
+ * have no unique key, in which case a change is a removal and an addition.
+ * Empty lists are written too, so clients can rely on them.
+ * 
+ * @author Joel Jerez
+ *
+ * @param <T> the Row Class
+ */
+@JsonInclude(Include.ALWAYS)
+public class Delta<T> {
+
+	private final long since;
+	private final long version;
+	private final List<T> added;
+	private final List<T> changed;
+	private final List<T> removed;
+
+	public Delta(long since, long version, List<T> added, List<T> changed, List<T> removed) {
+		this.since = since;
+		this.version = version;
+		this.added = added;
+		this.changed = changed;
+		this.removed = removed;
+	}
+
+	/**
+	 * The delta of a client that is already up to date.
+	 */
+	public static <T> Delta<T> empty(long version) {
+		return new Delta<>(version, version, Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+	}
+
+	/**
+	 * Compares the rows of both versions through their JSON trees, so nested
+	 * values are compared deeply.
+	 */
+	public static <T> Delta<T> diff(ObjectMapper objectMapper, long since, long version, List<T> previous, List<T> current, String[] keyAttributes) {
+		Map<JsonNode, List<Row<T>>> previousRows = group(objectMapper, previous, keyAttributes);
+		Map<JsonNode, List<Row<T>>> currentRows = group(objectMapper, current, keyAttributes);
+		List<T> added = new ArrayList<>();
+		List<T> changed = new ArrayList<>();
+		List<T> removed = new ArrayList<>();
+		for (Map.Entry<JsonNode, List<Row<T>>> entry : currentRows.entrySet()) {
+			List<Row<T>> currentGroup = entry.getValue();
+			List<Row<T>> previousGroup = previousRows.remove(entry.getKey());
+			if (previousGroup == null) {
+				currentGroup.forEach(row -> added.add(row.value));
+			} else if (previousGroup.size() == 1 && currentGroup.size() == 1) {
+				if (!previousGroup.get(0).tree.equals(currentGroup.get(0).tree)) {
+					changed.add(currentGroup.get(0).value);
+				}
+			} else {
+				// duplicated keys are matched by content
+				List<Row<T>> unmatched = new ArrayList<>(previousGroup);
+				for (Row<T> row : currentGroup) {
+					if (!remove(unmatched, row.tree)) {
+						added.add(row.value);
+					}
+				}
+				unmatched.forEach(row -> removed.add(row.value));
+			}
+		}
+		previousRows.values().forEach(group -> group.forEach(row -> removed.add(row.value)));
+		return new Delta<>(since, version, added, changed, removed);
+	}
+
+	public long getSince() {
+		return since;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public List<T> getAdded() {
+		return added;
+	}
+
+	public List<T> getChanged() {
+		return changed;
+	}
+
+	public List<T> getRemoved() {
+		return removed;
+	}
+
+	private static <T> Map<JsonNode, List<Row<T>>> group(ObjectMapper objectMapper, List<T> rows, String[] keyAttributes) {
+		Map<JsonNode, List<Row<T>>> groups = new LinkedHashMap<>();
+		for (T value : rows) {
+			JsonNode tree = objectMapper.valueToTree(value);
+			JsonNode key = tree;
+			if (keyAttributes != null) {
+				ArrayNode values = objectMapper.createArrayNode();
+				for (String attribute : keyAttributes) {
+					values.add(tree.path(attribute));
+				}
+				key = values;
+			}
+			groups.computeIfAbsent(key, k -> new ArrayList<>(1)).add(new Row<>(value, tree));
+		}
+		return groups;
+	}
+
+	private static <T> boolean remove(List<Row<T>> rows, JsonNode tree) {
+		for (Iterator<Row<T>> iterator = rows.iterator(); iterator.hasNext();) {
+			if (iterator.next().tree.equals(tree)) {
+				iterator.remove();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static class Row<T> {
+
+		private final T value;
+		private final JsonNode tree;
+
+		private Row(T value, JsonNode tree) {
+			this.value = value;
+			this.tree = tree;
+		}
+
+	}
+
+}
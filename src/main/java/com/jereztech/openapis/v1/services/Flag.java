@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+/**
+ * A country flag image, preloaded along with its validators.
+ * 
+ * @author Joel Jerez
+ */
+public class Flag {
+
+	private final byte[] bytes;
+	private final String eTag;
+	private final long lastModified;
+
+	public Flag(byte[] bytes, String eTag, long lastModified) {
+		this.bytes = bytes;
+		this.eTag = eTag;
+		this.lastModified = lastModified;
+	}
+
+	public byte[] getBytes() {
+		return bytes;
+	}
+
+	public String getETag() {
+		return eTag;
+	}
+
+	public long getLastModified() {
+		return lastModified;
+	}
+
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.imageio.ImageIO;
+
+import com.jereztech.openapis.support.ContentHash;
+import com.jereztech.openapis.v1.data.FlagSprite;
+
+/**
+ * The flags resized to one of the standard sizes, along with a sprite sheet
+ * of all of them so a flag picker needs a single image.
+ * 
+ * @author Joel Jerez
+ */
+public class FlagSet {
+
+	private static final String FORMAT = "png";
+
+	private final Map<String, Flag> flags;
+	private final Flag sprite;
+	private final FlagSprite manifest;
+
+	private FlagSet(Map<String, Flag> flags, Flag sprite, FlagSprite manifest) {
+		this.flags = flags;
+		this.sprite = sprite;
+		this.manifest = manifest;
+	}
+
+	public Flag getFlag(String alpha2Code) {
+		return flags.get(alpha2Code);
+	}
+
+	public Flag getSprite() {
+		return sprite;
+	}
+
+	public FlagSprite getManifest() {
+		return manifest;
+	}
+
+	/**
+	 * Resizes the flags and lays them out in a square grid sorted by alpha2Code.
+	 */
+	public static FlagSet render(Map<String, Flag> originals, int size) {
+		Map<String, Flag> flags = new TreeMap<>();
+		Map<String, BufferedImage> images = new TreeMap<>();
+		long lastModified = 0;
+		for (Map.Entry<String, Flag> original : originals.entrySet()) {
+			BufferedImage image = read(original.getValue().getBytes());
+			if (image == null) {
+				throw new IllegalArgumentException("Invalid flag " + original.getKey() + ".");
+			}
+			image = resize(image, size);
+			byte[] bytes = write(image);
+			images.put(original.getKey(), image);
+			flags.put(original.getKey(), new Flag(bytes, ContentHash.of(bytes), original.getValue().getLastModified()));
+			lastModified = Math.max(lastModified, original.getValue().getLastModified());
+		}
+		int columns = (int) Math.ceil(Math.sqrt(images.size()));
+		int rows = columns > 0 ? (images.size() + columns - 1) / columns : 0;
+		BufferedImage sheet = new BufferedImage(Math.max(1, columns * size), Math.max(1, rows * size), BufferedImage.TYPE_INT_ARGB);
+		Map<String, List<Integer>> offsets = new LinkedHashMap<>();
+		Graphics2D graphics = sheet.createGraphics();
+		int index = 0;
+		for (Map.Entry<String, BufferedImage> image : images.entrySet()) {
+			int x = index % columns * size;
+			int y = index / columns * size;
+			graphics.drawImage(image.getValue(), x, y, null);
+			offsets.put(image.getKey(), Collections.unmodifiableList(Arrays.asList(x, y)));
+			index++;
+		}
+		graphics.dispose();
+		byte[] bytes = write(sheet);
+		return new FlagSet(Collections.unmodifiableMap(flags), new Flag(bytes, ContentHash.of(bytes), lastModified),
+				new FlagSprite(size, sheet.getWidth(), sheet.getHeight(), Collections.unmodifiableMap(offsets)));
+	}
+
+	/**
+	 * Halves the image with bilinear interpolation until the size is reached,
+	 * which keeps the quality of a box filter for the standard sizes.
+	 */
+	private static BufferedImage resize(BufferedImage image, int size) {
+		BufferedImage resized = image;
+		int width = image.getWidth();
+		int height = image.getHeight();
+		do {
+			width = Math.max(size, width / 2);
+			height = Math.max(size, height / 2);
+			BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D graphics = step.createGraphics();
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			graphics.drawImage(resized, 0, 0, width, height, null);
+			graphics.dispose();
+			resized = step;
+		} while (width > size || height > size);
+		return resized;
+	}
+
+	private static BufferedImage read(byte[] bytes) {
+		try {
+			return ImageIO.read(new ByteArrayInputStream(bytes));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static byte[] write(BufferedImage image) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try {
+			ImageIO.write(image, FORMAT, bytes);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+}
@@ -17,6 +17,10 @@
 package com.jereztech.openapis.v1.services;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.jereztech.openapis.v1.data.TranslationMatch;
 
 /**
  * Represents the behaviors for findAll operations that must be realized without
@@ -33,4 +37,28 @@ public interface IFindAllDelegate<E, T> {
 
 	List<T> findAllTranslations(Integer pageNumber, Integer pageSize, String filter, String locale);
 
+	Stream<E> streamAll(Integer pageNumber, Integer pageSize, String filter);
+
+	Stream<T> streamAllTranslations(Integer pageNumber, Integer pageSize, String filter, String locale);
+
+	Delta<E> findAllSince(long since, String filter);
+
+	Delta<T> findAllTranslationsSince(long since, String filter, String locale);
+
+	CursorPage<E> findAllByCursor(String cursor, Integer pageSize, String filter);
+
+	CursorPage<T> findAllTranslationsByCursor(String cursor, Integer pageSize, String filter, String locale);
+
+	List<T> findAllTranslationsByPrefix(Integer limit, String prefix, String locale);
+
+	List<TranslationMatch> findAllTranslationsByName(Integer limit, String name);
+
+	Map<String, Map<String, String>> findAllTranslationsByLocales(String filter, String locales);
+
+	String getVersion();
+
+	long getDatasetVersion();
+
+	String getTranslationsVersion(String locale);
+
 }
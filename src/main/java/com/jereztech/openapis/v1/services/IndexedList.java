@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.jereztech.openapis.support.Accessor;
+import com.jereztech.openapis.support.ProxyAccessor;
+
+/**
+ * An immutable list of rows with hash indexes over some of their attributes.
+ * Every posting list keeps the order of the rows, so a lookup returns the same
+ * items, in the same order, as a scan would. The number of distinct values of
+ * an attribute is counted for the query planner the first time it asks for it.
+ * 
+ * @author Joel Jerez
+ *
+ * @param <T> the Row Class
+ */
+public class IndexedList<T> {
+
+	private final List<T> rows;
+	private final Map<String, Map<Object, List<T>>> indexes = new HashMap<>();
+	private final Map<String, Integer> cardinalities = new ConcurrentHashMap<>();
+	private final Map<String, PrefixIndex<T>> prefixIndexes = new ConcurrentHashMap<>();
+
+	public IndexedList(List<T> rows, String... indexedAttributes) {
+		this.rows = Collections.unmodifiableList(rows);
+		if (indexedAttributes != null) {
+			for (String attribute : indexedAttributes) {
+				Map<Object, List<T>> index = index(attribute);
+				if (index != null) {
+					indexes.put(normalize(attribute), index);
+				}
+			}
+		}
+	}
+
+	public List<T> getRows() {
+		return rows;
+	}
+
+	public int size() {
+		return rows.size();
+	}
+
+	/**
+	 * Returns the number of distinct values of the attribute, or 0 when it is
+	 * unknown.
+	 */
+	public int cardinality(String attribute) {
+		return cardinalities.computeIfAbsent(normalize(attribute), key -> countDistinct(attribute));
+	}
+
+	/**
+	 * Returns the rows whose attribute is equal to the value, or null when the
+	 * attribute is not indexed.
+	 */
+	public List<T> lookup(String attribute, Object value) {
+		Map<Object, List<T>> index = indexes.get(normalize(attribute));
+		if (index == null) {
+			return null;
+		}
+		return index.getOrDefault(value, Collections.emptyList());
+	}
+
+	/**
+	 * Returns the prefix index of the attribute, built on first use.
+	 */
+	public PrefixIndex<T> prefixIndex(String attribute) {
+		return prefixIndexes.computeIfAbsent(normalize(attribute), key -> new PrefixIndex<>(rows, attribute));
+	}
+
+	/**
+	 * Indexes a string attribute. Other types are compared by value and cannot be
+	 * answered by a hash lookup on the literal text, so they are left out.
+	 */
+	private Map<Object, List<T>> index(String attribute) {
+		Accessor accessor = ProxyAccessor.accessor(attribute);
+		Map<Object, List<T>> index = new HashMap<>();
+		for (T row : rows) {
+			Object key = accessor.get(row);
+			if (key != null && !(key instanceof String)) {
+				return null;
+			}
+			if (key != null) {
+				index.computeIfAbsent(key, value -> new ArrayList<>(1)).add(row);
+			}
+		}
+		index.replaceAll((key, postings) -> postings.size() == 1 ? Collections.singletonList(postings.get(0)) : Collections.unmodifiableList(postings));
+		return index;
+	}
+
+	/**
+	 * Counts the distinct values that are not null. The elements of an array or
+	 * a collection are counted on their own, since a term matches any of them,
+	 * and arrays are not compared by value anyway.
+	 */
+	private int countDistinct(String attribute) {
+		Map<Object, List<T>> index = indexes.get(normalize(attribute));
+		if (index != null) {
+			return index.size();
+		}
+		Accessor accessor = ProxyAccessor.accessor(attribute);
+		Set<Object> values = new HashSet<>();
+		for (T row : rows) {
+			Object value = accessor.get(row);
+			if (value instanceof Collection) {
+				values.addAll((Collection<?>) value);
+			} else if (value != null && value.getClass().isArray()) {
+				for (int i = 0; i < Array.getLength(value); i++) {
+					values.add(Array.get(value, i));
+				}
+			} else {
+				values.add(value);
+			}
+		}
+		values.remove(null);
+		return values.size();
+	}
+
+	/**
+	 * Attributes are matched ignoring case, like {@link ProxyAccessor} does.
+	 */
+	private static String normalize(String attribute) {
+		return attribute.toLowerCase(Locale.ROOT);
+	}
+
+}
@@ -36,7 +36,17 @@ public class LanguageService extends AbstractService<Language, LanguageTranslati
 
 	@Override
 	protected String getEntitiesPath() {
-		return "src/main/resources/v1/languages/languages.json";
+		return "v1/languages/languages.json";
+	}
+
+	@Override
+	protected String[] getIndexedAttributes() {
+		return new String[] { "localeAlpha2", "localeAlpha3" };
+	}
+
+	@Override
+	protected String[] getKeyAttributes() {
+		return null;
 	}
 
 	@Override
@@ -46,7 +56,22 @@ public class LanguageService extends AbstractService<Language, LanguageTranslati
 
 	@Override
 	protected String getTranslationsPath() {
-		return "src/main/resources/v1/languages/translations";
+		return "v1/languages/translations";
+	}
+
+	@Override
+	protected String[] getTranslationIndexedAttributes() {
+		return new String[] { "code" };
+	}
+
+	@Override
+	protected String getTranslationCodeAttribute() {
+		return "code";
+	}
+
+	@Override
+	protected String getTranslationNameAttribute() {
+		return "language";
 	}
 
 }
@@ -38,6 +38,16 @@ public class LocaleService extends AbstractService<Void, LocaleTranslation> {
 		return null;
 	}
 
+	@Override
+	protected String[] getIndexedAttributes() {
+		return null;
+	}
+
+	@Override
+	protected String[] getKeyAttributes() {
+		return null;
+	}
+
 	@Override
 	protected Class<LocaleTranslation> getTranslationClass() {
 		return LocaleTranslation.class;
@@ -45,7 +55,22 @@ public class LocaleService extends AbstractService<Void, LocaleTranslation> {
 
 	@Override
 	protected String getTranslationsPath() {
-		return "src/main/resources/v1/locales/translations";
+		return "v1/locales/translations";
+	}
+
+	@Override
+	protected String[] getTranslationIndexedAttributes() {
+		return new String[] { "code" };
+	}
+
+	@Override
+	protected String getTranslationCodeAttribute() {
+		return "code";
+	}
+
+	@Override
+	protected String getTranslationNameAttribute() {
+		return "locale";
 	}
 
 }
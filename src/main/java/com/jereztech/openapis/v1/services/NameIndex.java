@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.jereztech.openapis.v1.data.TranslationMatch;
+
+/**
+ * An inverted index from the translated names of every locale to their codes.
+ * Names are accent-folded and matched through their trigrams, so misspelled or
+ * partial names still find ranked candidates.
+ * 
+ * @author Joel Jerez
+ */
+public class NameIndex {
+
+	private static final double MIN_SCORE = 0.3d;
+	private static final String PADDING = "  ";
+	private static final int[] NO_IDS = new int[0];
+
+	private final List<String> names = new ArrayList<>();
+	private final List<String[]> codes = new ArrayList<>();
+	private final Map<String, Integer> ids = new HashMap<>();
+	private final Map<String, int[]> trigrams = new HashMap<>();
+	private final int[] trigramCounts;
+
+	private NameIndex(Map<String, Map<String, String>> entries) {
+		Map<String, List<Integer>> postings = new HashMap<>();
+		this.trigramCounts = new int[entries.size()];
+		for (Map.Entry<String, Map<String, String>> entry : entries.entrySet()) {
+			int id = names.size();
+			List<String> nameTrigrams = trigrams(entry.getKey());
+			ids.put(entry.getKey(), id);
+			names.add(entry.getValue().values().iterator().next());
+			codes.add(entry.getValue().keySet().toArray(new String[0]));
+			trigramCounts[id] = nameTrigrams.size();
+			for (String trigram : nameTrigrams) {
+				postings.computeIfAbsent(trigram, key -> new ArrayList<>()).add(id);
+			}
+		}
+		postings.forEach((trigram, posting) -> trigrams.put(trigram, posting.stream().mapToInt(Integer::intValue).toArray()));
+	}
+
+	/**
+	 * Returns the codes whose names best match the text, with a score between 0
+	 * and 1 where 1 is an exact match ignoring case and accents.
+	 */
+	public List<TranslationMatch> search(String text, int limit) {
+		String key = PrefixIndex.fold(text.trim());
+		Map<String, TranslationMatch> matches = new LinkedHashMap<>();
+		Integer exact = ids.get(key);
+		if (exact != null) {
+			add(matches, exact, 1d);
+		}
+		List<String> queryTrigrams = trigrams(key);
+		int[] candidates = candidates(queryTrigrams);
+		for (int from = 0, to; from < candidates.length; from = to) {
+			int id = candidates[from];
+			for (to = from + 1; to < candidates.length && candidates[to] == id;) {
+				to++;
+			}
+			// the sorted candidates repeat an id once for each trigram in common
+			double score = 2d * (to - from) / (queryTrigrams.size() + trigramCounts[id]);
+			if (score >= MIN_SCORE) {
+				add(matches, id, score);
+			}
+		}
+		List<TranslationMatch> ranked = new ArrayList<>(matches.values());
+		ranked.sort(Comparator.comparingDouble(TranslationMatch::getScore).reversed());
+		return ranked.subList(0, Math.min(limit, ranked.size()));
+	}
+
+	/**
+	 * The sorted ids of the postings of the trigrams, so only the names that
+	 * share a trigram with the text are scored.
+	 */
+	private int[] candidates(List<String> queryTrigrams) {
+		List<int[]> postings = new ArrayList<>(queryTrigrams.size());
+		int size = 0;
+		for (String trigram : queryTrigrams) {
+			int[] posting = trigrams.getOrDefault(trigram, NO_IDS);
+			postings.add(posting);
+			size += posting.length;
+		}
+		int[] candidates = new int[size];
+		int offset = 0;
+		for (int[] posting : postings) {
+			System.arraycopy(posting, 0, candidates, offset, posting.length);
+			offset += posting.length;
+		}
+		Arrays.sort(candidates);
+		return candidates;
+	}
+
+	private void add(Map<String, TranslationMatch> matches, int id, double score) {
+		for (String code : codes.get(id)) {
+			TranslationMatch match = matches.get(code);
+			if (match == null || match.getScore() < score) {
+				matches.put(code, new TranslationMatch(code, names.get(id), score));
+			}
+		}
+	}
+
+	/**
+	 * The distinct trigrams of the padded text, so short names and word
+	 * boundaries weigh in.
+	 */
+	private static List<String> trigrams(String text) {
+		String padded = PADDING + text + PADDING.charAt(0);
+		List<String> trigrams = new ArrayList<>(padded.length());
+		for (int i = 0; i + 3 <= padded.length(); i++) {
+			String trigram = padded.substring(i, i + 3);
+			if (!trigrams.contains(trigram)) {
+				trigrams.add(trigram);
+			}
+		}
+		return trigrams;
+	}
+
+	/**
+	 * Collects the names of many translation tables before building the index.
+	 */
+	public static class Builder {
+
+		private final Map<String, Map<String, String>> entries = new HashMap<>();
+
+		public Builder add(TranslationTable translations) {
+			for (int row = 0; row < translations.size(); row++) {
+				String code = translations.getCode(row);
+				String name = translations.getName(row);
+				if (code != null && name != null) {
+					entries.computeIfAbsent(PrefixIndex.fold(name), key -> new LinkedHashMap<>(2)).putIfAbsent(code, name);
+				}
+			}
+			return this;
+		}
+
+		public NameIndex build() {
+			return new NameIndex(entries);
+		}
+
+	}
+
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.lang3.StringUtils.stripAccents;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import com.jereztech.openapis.support.Accessor;
+import com.jereztech.openapis.support.ProxyAccessor;
+
+/**
+ * A sorted-array index over the accent-folded values of a string attribute.
+ * Values are matched first by their beginning and then by the beginning of any
+ * of their other words, so {@code sta} finds "United States" after "Sta...".
+ * 
+ * @author Joel Jerez
+ *
+ * @param <T> the Row Class
+ */
+public class PrefixIndex<T> {
+
+	private final String[] keys;
+	private final List<T> rows;
+	private final String[] wordKeys;
+	private final List<T> wordRows;
+
+	public PrefixIndex(List<T> source, String attribute) {
+		Accessor accessor = ProxyAccessor.accessor(attribute);
+		List<Entry<T>> entries = new ArrayList<>();
+		List<Entry<T>> wordEntries = new ArrayList<>();
+		for (T row : source) {
+			Object value = accessor.get(row);
+			if (value instanceof String) {
+				String key = fold((String) value);
+				entries.add(new Entry<>(key, row));
+				for (int i = 1; i < key.length(); i++) {
+					if (Character.isLetterOrDigit(key.charAt(i)) && !Character.isLetterOrDigit(key.charAt(i - 1))) {
+						wordEntries.add(new Entry<>(key.substring(i), row));
+					}
+				}
+			}
+		}
+		entries.sort(Comparator.comparing(entry -> entry.key));
+		wordEntries.sort(Comparator.comparing(entry -> entry.key));
+		this.keys = entries.stream().map(entry -> entry.key).toArray(String[]::new);
+		this.rows = Collections.unmodifiableList(entries.stream().map(entry -> entry.row).collect(toList()));
+		this.wordKeys = wordEntries.stream().map(entry -> entry.key).toArray(String[]::new);
+		this.wordRows = Collections.unmodifiableList(wordEntries.stream().map(entry -> entry.row).collect(toList()));
+	}
+
+	/**
+	 * Returns at most limit rows whose value, or one of its words, starts with the
+	 * prefix ignoring case and accents.
+	 */
+	public List<T> search(String prefix, int limit) {
+		String key = prefix == null ? "" : fold(prefix.trim());
+		List<T> matches = new ArrayList<>(Math.min(limit, keys.length));
+		collect(keys, rows, key, limit, matches);
+		collect(wordKeys, wordRows, key, limit, matches);
+		return matches;
+	}
+
+	private static <T> void collect(String[] keys, List<T> rows, String prefix, int limit, List<T> matches) {
+		for (int i = lowerBound(keys, prefix); i < keys.length && matches.size() < limit && keys[i].startsWith(prefix); i++) {
+			T row = rows.get(i);
+			if (!containsIdentical(matches, row)) {
+				matches.add(row);
+			}
+		}
+	}
+
+	private static int lowerBound(String[] keys, String key) {
+		int low = 0;
+		int high = keys.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (keys[middle].compareTo(key) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private static boolean containsIdentical(List<?> matches, Object row) {
+		for (Object match : matches) {
+			if (match == row) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public static String fold(String value) {
+		return stripAccents(value).toLowerCase(Locale.ROOT);
+	}
+
+	private static class Entry<T> {
+
+		private final String key;
+		private final T row;
+
+		private Entry(String key, T row) {
+			this.key = key;
+			this.row = row;
+		}
+
+	}
+
+}
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import java.util.List;
+
+import com.jereztech.openapis.support.filter.Filter;
+
+/**
+ * The rows to scan for a filter and the terms still to check on each of them.
+ * 
+ * @author Joel Jerez
+ *
+ * @param <T> the Row Class
+ */
+public class QueryPlan<T> {
+
+	private final List<T> candidates;
+	private final Filter residual;
+
+	public QueryPlan(List<T> candidates, Filter residual) {
+		this.candidates = candidates;
+		this.residual = residual;
+	}
+
+	public List<T> getCandidates() {
+		return candidates;
+	}
+
+	public Filter getResidual() {
+		return residual;
+	}
+
+	/**
+	 * Whether every candidate matches, so no row needs to be checked.
+	 */
+	public boolean isExact() {
+		return residual == Filter.ALL;
+	}
+
+}
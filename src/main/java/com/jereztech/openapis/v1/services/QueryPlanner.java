@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import static java.util.Comparator.comparingDouble;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.jereztech.openapis.support.filter.AndFilter;
+import com.jereztech.openapis.support.filter.ComparisonFilter;
+import com.jereztech.openapis.support.filter.Filter;
+import com.jereztech.openapis.support.filter.InFilter;
+import com.jereztech.openapis.support.filter.Operator;
+
+/**
+ * Defines the logic to plan a filter over an {@link IndexedList}. The scan is
+ * driven by the indexed equality term with the fewest rows, and the remaining
+ * terms are checked from the most to the least selective so that the
+ * evaluation short-circuits as early as possible.
+ * 
+ * @author Joel Jerez
+ */
+public class QueryPlanner {
+
+	private static final double UNKNOWN_SELECTIVITY = 1d;
+
+	public static <T> QueryPlan<T> plan(IndexedList<T> source, Filter filter) {
+		if (filter == Filter.ALL) {
+			return new QueryPlan<>(source.getRows(), Filter.ALL);
+		}
+		List<Filter> terms = filter instanceof AndFilter ? ((AndFilter) filter).getTerms() : Collections.singletonList(filter);
+		List<T> candidates = source.getRows();
+		Filter driver = null;
+		for (Filter term : terms) {
+			List<T> postings = lookup(source, term);
+			if (postings != null && (driver == null || postings.size() < candidates.size())) {
+				candidates = postings;
+				driver = term;
+			}
+		}
+		List<Filter> residual = new ArrayList<>(terms);
+		residual.remove(driver);
+		residual.sort(comparingDouble(term -> selectivity(source, term)));
+		return new QueryPlan<>(candidates, residual.isEmpty() ? Filter.ALL : residual.size() == 1 ? residual.get(0) : new AndFilter(residual.toArray(new Filter[0])));
+	}
+
+	/**
+	 * Estimates the fraction of rows accepted by the term.
+	 */
+	private static double selectivity(IndexedList<?> source, Filter term) {
+		if (source.getRows().isEmpty()) {
+			return UNKNOWN_SELECTIVITY;
+		}
+		List<?> postings = lookup(source, term);
+		if (postings != null) {
+			return (double) postings.size() / source.size();
+		}
+		if (term instanceof ComparisonFilter && ((ComparisonFilter) term).getOperator() == Operator.EQ) {
+			int cardinality = source.cardinality(((ComparisonFilter) term).getAttributePath());
+			return cardinality > 0 ? 1d / cardinality : UNKNOWN_SELECTIVITY;
+		}
+		if (term instanceof InFilter) {
+			int cardinality = source.cardinality(((InFilter) term).getAttributePath());
+			return cardinality > 0 ? Math.min(UNKNOWN_SELECTIVITY, (double) ((InFilter) term).size() / cardinality) : UNKNOWN_SELECTIVITY;
+		}
+		return UNKNOWN_SELECTIVITY;
+	}
+
+	/**
+	 * Returns the posting list of a case-sensitive equality on an indexed
+	 * attribute, or null when the term cannot be answered by an index.
+	 */
+	private static <T> List<T> lookup(IndexedList<T> source, Filter term) {
+		if (term instanceof ComparisonFilter) {
+			ComparisonFilter comparison = (ComparisonFilter) term;
+			if (comparison.getOperator() == Operator.EQ && !comparison.isIgnoreCase() && !comparison.getLiteral().isNull()) {
+				return source.lookup(comparison.getAttributePath(), comparison.getLiteral().getText());
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.jereztech.openapis.support.BoundedCache;
+
+/**
+ * Keeps the parsed translations of every service in memory. The budget is
+ * shared by all services and each entry is weighted by the size of its source
+ * file. Entries are keyed by the content hash of the file, so locales with
+ * identical files share one table.
+ * 
+ * @author Joel Jerez
+ */
+@Component
+public class TranslationCache {
+
+	private final BoundedCache<String, Weighted> cache;
+
+	public TranslationCache(@Value("${openapis.cache.translations.max-bytes}") long maxBytes) {
+		this.cache = new BoundedCache<>(maxBytes, weighted -> weighted.bytes);
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> IndexedList<T> get(String translationsPath, String version, long bytes, Supplier<IndexedList<T>> loader) {
+		return (IndexedList<T>) cache.get(key(translationsPath, version), key -> new Weighted(loader.get(), bytes)).translations;
+	}
+
+	/**
+	 * Returns the cached translations, or else loads them without caching them.
+	 * Used by the requests that scan many tables once, so they do not evict the
+	 * tables of the frequent requests.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> IndexedList<T> peek(String translationsPath, String version, Supplier<IndexedList<T>> loader) {
+		Weighted cached = cache.get(key(translationsPath, version));
+		return cached != null ? (IndexedList<T>) cached.translations : loader.get();
+	}
+
+	private static String key(String translationsPath, String version) {
+		return translationsPath + "/" + version;
+	}
+
+	private static class Weighted {
+
+		private final IndexedList<?> translations;
+		private final long bytes;
+
+		private Weighted(IndexedList<?> translations, long bytes) {
+			this.translations = translations;
+			this.bytes = bytes;
+		}
+
+	}
+
+}
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A binary snapshot of the translation tables of a resource. It is written
+ * once from the JSON files and then mapped into memory, so the next startups
+ * parse no JSON and the tables live off the heap, in the page cache shared by
+ * every JVM of the host. The snapshot records the fingerprint of the files it
+ * was taken from, and is ignored when they change. It is only read from a
+ * directory other users cannot write, and every declared length is checked,
+ * so a corrupted snapshot is taken again instead of failing the startup.
+ * 
+ * @author Joel Jerez
+ */
+public class TranslationSnapshot {
+
+	private static final int MAGIC = 0x4F415053;
+	private static final int FORMAT = 1;
+	private static final String TEMPORARY_SUFFIX = ".tmp";
+	private static final String POSIX = "posix";
+	private static final String PRIVATE_PERMISSIONS = "rwx------";
+
+	private final TranslationTable.Dictionary dictionary;
+	private final Map<String, TranslationsFile> locales;
+
+	public TranslationSnapshot(TranslationTable.Dictionary dictionary, Map<String, TranslationsFile> locales) {
+		this.dictionary = dictionary;
+		this.locales = locales;
+	}
+
+	public TranslationTable.Dictionary getDictionary() {
+		return dictionary;
+	}
+
+	/**
+	 * The files of the locales. Aliases share the same file.
+	 */
+	public Map<String, TranslationsFile> getLocales() {
+		return locales;
+	}
+
+	/**
+	 * Maps the snapshot, or returns null when it is missing, was taken from other
+	 * files or cannot be read.
+	 */
+	public static TranslationSnapshot read(Path path, String fingerprint) throws IOException {
+		if (!isPrivate(path.toAbsolutePath().getParent())) {
+			return null;
+		}
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				return null;
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} catch (NoSuchFileException e) {
+			return null;
+		}
+		try {
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT || !fingerprint.equals(getString(buffer))) {
+				return null;
+			}
+			TranslationTable.Dictionary.Builder builder = new TranslationTable.Dictionary.Builder();
+			for (int i = buffer.getInt(); i > 0; i--) {
+				builder.ordinal(getString(buffer));
+			}
+			TranslationTable.Dictionary dictionary = builder.build();
+			List<TranslationsFile> files = new ArrayList<>();
+			for (int i = buffer.getInt(); i > 0; i--) {
+				String locale = getString(buffer);
+				long bytes = buffer.getLong();
+				String version = getString(buffer);
+				ByteBuffer table = slice(buffer, buffer.getInt());
+				TranslationTable translationTable = new TranslationTable(dictionary, table);
+				if (bytes < 0 || !translationTable.isValid()) {
+					return null;
+				}
+				files.add(new TranslationsFile(locale, bytes, version, translationTable));
+			}
+			Map<String, TranslationsFile> locales = new HashMap<>();
+			for (int i = buffer.getInt(); i > 0; i--) {
+				locales.put(getString(buffer), files.get(buffer.getInt()));
+			}
+			return new TranslationSnapshot(dictionary, Collections.unmodifiableMap(locales));
+		} catch (RuntimeException e) {
+			// truncated or corrupted, it is taken again
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the snapshot to a temporary file first and then moves it, so a
+	 * concurrent reader never sees it partially written.
+	 */
+	public void write(Path path, String fingerprint) throws IOException {
+		createPrivateDirectories(path.toAbsolutePath().getParent());
+		Path temporary = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), TEMPORARY_SUFFIX);
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT);
+				putString(out, fingerprint);
+				List<String> codes = dictionary.getCodes();
+				out.writeInt(codes.size());
+				for (String code : codes) {
+					putString(out, code);
+				}
+				Map<TranslationsFile, Integer> indexes = new IdentityHashMap<>();
+				List<TranslationsFile> files = new ArrayList<>();
+				for (TranslationsFile file : locales.values()) {
+					if (indexes.putIfAbsent(file, files.size()) == null) {
+						files.add(file);
+					}
+				}
+				out.writeInt(files.size());
+				for (TranslationsFile file : files) {
+					putString(out, file.getLocale());
+					out.writeLong(file.getBytes());
+					putString(out, file.getVersion());
+					ByteBuffer table = file.getTable().getBuffer();
+					byte[] bytes = new byte[table.remaining()];
+					table.get(bytes);
+					out.writeInt(bytes.length);
+					out.write(bytes);
+				}
+				out.writeInt(locales.size());
+				for (Map.Entry<String, TranslationsFile> locale : locales.entrySet()) {
+					putString(out, locale.getKey());
+					out.writeInt(indexes.get(locale.getValue()));
+				}
+			}
+			Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Only the owner may write the snapshots, since their versions are trusted.
+	 * The directory is created accessible to the owner alone.
+	 */
+	private static void createPrivateDirectories(Path directory) throws IOException {
+		if (Files.isDirectory(directory)) {
+			return;
+		}
+		if (directory.getFileSystem().supportedFileAttributeViews().contains(POSIX)) {
+			Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(PRIVATE_PERMISSIONS)));
+		} else {
+			Files.createDirectories(directory);
+		}
+	}
+
+	/**
+	 * Whether the directory cannot be written by other users, so they cannot
+	 * plant a snapshot in it.
+	 */
+	private static boolean isPrivate(Path directory) throws IOException {
+		if (!Files.isDirectory(directory) || !directory.getFileSystem().supportedFileAttributeViews().contains(POSIX)) {
+			return true;
+		}
+		Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory);
+		return !permissions.contains(PosixFilePermission.GROUP_WRITE) && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+	}
+
+	/**
+	 * The next bytes of the buffer, checking their declared length against what
+	 * is left, so a corrupted snapshot cannot make it allocate or read past its
+	 * end.
+	 */
+	private static ByteBuffer slice(ByteBuffer buffer, int length) {
+		if (length < 0 || length > buffer.remaining()) {
+			throw new IllegalArgumentException("Invalid snapshot.");
+		}
+		ByteBuffer slice = buffer.duplicate();
+		slice.limit(buffer.position() + length);
+		buffer.position(buffer.position() + length);
+		return slice.slice();
+	}
+
+	private static String getString(ByteBuffer buffer) {
+		ByteBuffer bytes = slice(buffer, buffer.getInt());
+		return UTF_8.decode(bytes).toString();
+	}
+
+	private static void putString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+}
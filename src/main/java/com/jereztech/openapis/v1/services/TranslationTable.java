@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.jereztech.openapis.support.Accessor;
+
+/**
+ * A translation table stored by columns: the code of every row as an ordinal
+ * of the dictionary shared by all the locales of a resource, and its name in
+ * UTF-8. It keeps the rows in the order of the source file.
+ * 
+ * The columns live in a buffer, on the heap or mapped from a
+ * {@link TranslationSnapshot}, and the names are decoded when read. Its layout
+ * is the number of rows, the ordinals, the offsets and lengths of the names,
+ * and their bytes.
+ * 
+ * @author Joel Jerez
+ */
+public class TranslationTable {
+
+	private static final int NO_CODE = -1;
+	private static final int NO_NAME = -1;
+
+	private final Dictionary dictionary;
+	private final ByteBuffer buffer;
+	private final int size;
+	private final int namesStart;
+
+	public TranslationTable(Dictionary dictionary, ByteBuffer buffer) {
+		this.dictionary = dictionary;
+		this.buffer = buffer;
+		this.size = buffer.getInt(0);
+		this.namesStart = Integer.BYTES * (1 + 3 * size);
+	}
+
+	/**
+	 * Encodes the columns of the translations, reading their code and name
+	 * through the accessors. The codes are numbered by the dictionary being
+	 * built, which the table is bound to once it is complete.
+	 */
+	public static ByteBuffer encode(List<?> translations, Accessor codeAccessor, Accessor nameAccessor, Dictionary.Builder dictionary) {
+		int size = translations.size();
+		int[] ordinals = new int[size];
+		byte[][] names = new byte[size][];
+		int namesLength = 0;
+		for (int row = 0; row < size; row++) {
+			Object translation = translations.get(row);
+			Object code = codeAccessor.get(translation);
+			Object name = nameAccessor.get(translation);
+			ordinals[row] = code instanceof String ? dictionary.ordinal((String) code) : NO_CODE;
+			names[row] = name instanceof String ? ((String) name).getBytes(UTF_8) : null;
+			namesLength += names[row] != null ? names[row].length : 0;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * (1 + 3 * size) + namesLength);
+		buffer.putInt(size);
+		for (int ordinal : ordinals) {
+			buffer.putInt(ordinal);
+		}
+		int offset = 0;
+		for (byte[] name : names) {
+			buffer.putInt(offset);
+			offset += name != null ? name.length : 0;
+		}
+		for (byte[] name : names) {
+			buffer.putInt(name != null ? name.length : NO_NAME);
+		}
+		for (byte[] name : names) {
+			if (name != null) {
+				buffer.put(name);
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Whether the columns fit in the buffer and refer to codes of the
+	 * dictionary, which is checked once when a snapshot is mapped.
+	 */
+	public boolean isValid() {
+		if (size < 0 || Integer.BYTES * (1 + 3L * size) > buffer.limit()) {
+			return false;
+		}
+		int namesLength = buffer.limit() - namesStart;
+		int codes = dictionary.size();
+		for (int row = 0; row < size; row++) {
+			int ordinal = buffer.getInt(Integer.BYTES * (1 + row));
+			int offset = buffer.getInt(Integer.BYTES * (1 + size + row));
+			int length = buffer.getInt(Integer.BYTES * (1 + 2 * size + row));
+			if (ordinal < NO_CODE || ordinal >= codes || length < NO_NAME
+					|| length != NO_NAME && (offset < 0 || (long) offset + length > namesLength)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public String getCode(int row) {
+		int ordinal = buffer.getInt(Integer.BYTES * (1 + row));
+		return ordinal != NO_CODE ? dictionary.code(ordinal) : null;
+	}
+
+	public String getName(int row) {
+		int length = buffer.getInt(Integer.BYTES * (1 + 2 * size + row));
+		if (length == NO_NAME) {
+			return null;
+		}
+		ByteBuffer name = buffer.duplicate();
+		name.position(namesStart + buffer.getInt(Integer.BYTES * (1 + size + row)));
+		byte[] bytes = new byte[length];
+		name.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	/**
+	 * The encoded columns, as they are written to a snapshot.
+	 */
+	public ByteBuffer getBuffer() {
+		return buffer.duplicate();
+	}
+
+	/**
+	 * The codes of a resource, numbered in order of appearance. It is built
+	 * once and immutable, so the tables read it without locking.
+	 */
+	public static class Dictionary {
+
+		private final String[] codes;
+
+		private Dictionary(String[] codes) {
+			this.codes = codes;
+		}
+
+		public String code(int ordinal) {
+			return codes[ordinal];
+		}
+
+		public int size() {
+			return codes.length;
+		}
+
+		/**
+		 * The codes in order of their ordinals.
+		 */
+		public List<String> getCodes() {
+			return Collections.unmodifiableList(Arrays.asList(codes));
+		}
+
+		/**
+		 * Numbers the codes while the tables are encoded, by one thread.
+		 */
+		public static class Builder {
+
+			private final Map<String, Integer> ordinals = new HashMap<>();
+			private final List<String> codes = new ArrayList<>();
+
+			public int ordinal(String code) {
+				return ordinals.computeIfAbsent(code, key -> {
+					codes.add(key);
+					return codes.size() - 1;
+				});
+			}
+
+			public Dictionary build() {
+				return new Dictionary(codes.toArray(new String[0]));
+			}
+
+		}
+
+	}
+
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+/**
+ * A translations file of a locale, or of several if their content is the same,
+ * along with its encoded table.
+ * 
+ * @author Joel Jerez
+ */
+public class TranslationsFile {
+
+	private final String locale;
+	private final long bytes;
+	private final String version;
+	private final TranslationTable table;
+
+	public TranslationsFile(String locale, long bytes, String version, TranslationTable table) {
+		this.locale = locale;
+		this.bytes = bytes;
+		this.version = version;
+		this.table = table;
+	}
+
+	/**
+	 * The locale the file is named after.
+	 */
+	public String getLocale() {
+		return locale;
+	}
+
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * The content hash of the file.
+	 */
+	public String getVersion() {
+		return version;
+	}
+
+	public TranslationTable getTable() {
+		return table;
+	}
+
+}
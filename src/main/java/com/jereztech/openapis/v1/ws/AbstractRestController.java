@@ -16,26 +16,54 @@
  ******************************************************************************/
 package com.jereztech.openapis.v1.ws;
 
-import static com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter.filterOutAllExcept;
-import static com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter.serializeAll;
-import static com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter.serializeAllExcept;
+import static com.jereztech.openapis.support.Constants.AUTOCOMPLETE_LIMIT;
 import static com.jereztech.openapis.support.Constants.COMMA_SEPARATOR;
 import static com.jereztech.openapis.support.Constants.FIRST_PAGE;
+import static com.jereztech.openapis.support.Constants.FIRST_PAGE_INT;
 import static com.jereztech.openapis.support.Constants.PAGE_SIZE;
-import static org.apache.commons.lang3.StringUtils.isNotBlank;
-import static org.apache.commons.lang3.StringUtils.strip;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
-import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
-import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
-import com.jereztech.openapis.support.Constants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jereztech.openapis.support.ContentHash;
+import com.jereztech.openapis.support.JsonUtil;
+import com.jereztech.openapis.support.Projection;
+import com.jereztech.openapis.support.TeeOutputStream;
+import com.jereztech.openapis.support.filter.FilterCompiler;
+import com.jereztech.openapis.v1.data.TranslationMatch;
 import com.jereztech.openapis.v1.services.AbstractService;
+import com.jereztech.openapis.v1.services.CursorPage;
+import com.jereztech.openapis.v1.services.Delta;
 import com.jereztech.openapis.v1.services.IFindAllDelegate;
 
 /**
@@ -49,10 +77,37 @@ import com.jereztech.openapis.v1.services.IFindAllDelegate;
  */
 public abstract class AbstractRestController<E, T, S extends AbstractService<E, T>> implements IFindAllDelegate<E, T> {
 
+	private static final String KEY_SEPARATOR = "|";
+	private static final String GZIP = "gzip";
+	private static final String WEAK_ETAG_PREFIX = "W/";
+	private static final int CHUNK_SIZE = 32 * 1024;
+	private static final String CURSOR_PREFIX = "@";
+	private static final String ITEMS_FIELD = "items";
+	private static final String NEXT_CURSOR_FIELD = "nextCursor";
+	private static final String SINCE_PREFIX = "since=";
+	private static final String VERSION_FIELD = "version";
+	private static final String SINCE_FIELD = "since";
+	private static final String ADDED_FIELD = "added";
+	private static final String CHANGED_FIELD = "changed";
+	private static final String REMOVED_FIELD = "removed";
+	private static final String DATASET_VERSION_HEADER = "X-Dataset-Version";
+
 	protected final S service;
 
+	private final String resource;
+
+	@Autowired
+	private JsonUtil jsonUtil;
+
+	@Autowired
+	private ResponseCache responseCache;
+
+	@Value("${openapis.http.max-age}")
+	private long maxAge;
+
 	public AbstractRestController(S service) {
 		this.service = service;
+		this.resource = String.join(COMMA_SEPARATOR, AnnotationUtils.findAnnotation(getClass(), RequestMapping.class).value());
 	}
 
 	/**
@@ -73,6 +128,117 @@ public abstract class AbstractRestController<E, T, S extends AbstractService<E,
 		return service.findAllTranslations(pageNumber, pageSize, filter, locale);
 	}
 
+	/**
+	 * Same as findAll, but the entities are filtered as the stream is consumed.
+	 */
+	@Override
+	public Stream<E> streamAll(Integer pageNumber, Integer pageSize, String filter) {
+		return service.streamAll(pageNumber, pageSize, filter);
+	}
+
+	/**
+	 * Same as findAllTranslations, but the entity translations are filtered as
+	 * the stream is consumed.
+	 */
+	@Override
+	public Stream<T> streamAllTranslations(Integer pageNumber, Integer pageSize, String filter, String locale) {
+		return service.streamAllTranslations(pageNumber, pageSize, filter, locale);
+	}
+
+	/**
+	 * Defines the logic to find the entities that match the filter and were
+	 * added, changed or removed since the version of the dataset.
+	 */
+	@Override
+	public Delta<E> findAllSince(long since, String filter) {
+		return service.findAllSince(since, filter);
+	}
+
+	/**
+	 * Defines the logic to find the entity translations by locale that match the
+	 * filter and were added, changed or removed since the version of the dataset.
+	 */
+	@Override
+	public Delta<T> findAllTranslationsSince(long since, String filter, String locale) {
+		return service.findAllTranslationsSince(since, filter, locale);
+	}
+
+	/**
+	 * Defines the logic to find the page of entities that match the filter
+	 * starting at the cursor.
+	 */
+	@Override
+	public CursorPage<E> findAllByCursor(String cursor, Integer pageSize, String filter) {
+		return service.findAllByCursor(cursor, pageSize, filter);
+	}
+
+	/**
+	 * Defines the logic to find the page of entity translations by locale that
+	 * match the filter starting at the cursor.
+	 */
+	@Override
+	public CursorPage<T> findAllTranslationsByCursor(String cursor, Integer pageSize, String filter, String locale) {
+		return service.findAllTranslationsByCursor(cursor, pageSize, filter, locale);
+	}
+
+	/**
+	 * Defines the logic to find the entity translations by locale whose name
+	 * starts with the prefix.
+	 */
+	@Override
+	public List<T> findAllTranslationsByPrefix(Integer limit, String prefix, String locale) {
+		return service.findAllTranslationsByPrefix(limit, prefix, locale);
+	}
+
+	/**
+	 * Defines the logic to find the codes whose translated name, in any locale,
+	 * matches the name.
+	 */
+	@Override
+	public List<TranslationMatch> findAllTranslationsByName(Integer limit, String name) {
+		return service.findAllTranslationsByName(limit, name);
+	}
+
+	@Override
+	public Map<String, Map<String, String>> findAllTranslationsByLocales(String filter, String locales) {
+		return service.findAllTranslationsByLocales(filter, locales);
+	}
+
+	@Override
+	public String getVersion() {
+		return service.getVersion();
+	}
+
+	@Override
+	public long getDatasetVersion() {
+		return service.getDatasetVersion();
+	}
+
+	@Override
+	public String getTranslationsVersion(String locale) {
+		return service.getTranslationsVersion(locale);
+	}
+
+	/**
+	 * Find the version of the dataset, which changes whenever its data changes.
+	 * It is derived from the content, so it is the same across restarts and
+	 * nodes. Every findAll response carries it in the X-Dataset-Version header.
+	 *
+	 * <pre>
+	 * 
+	 * Request Example: GET /api/v1/countries/version
+	 * Response Example:
+		{
+		  "version": 1611014400000
+		}
+	 * </pre>
+	 */
+	@GetMapping("/version")
+	public ResponseEntity<Map<String, Long>> findVersionMapping() {
+		long version = getDatasetVersion();
+		return ResponseEntity.ok().header(DATASET_VERSION_HEADER, String.valueOf(version)).body(Collections.singletonMap(VERSION_FIELD, version));
+	}
+
 	/**
 	 * Find all entities that match the filter including or excluding properties.
 	 * The ResultSet can be paginated for performance reasons.
@@ -92,6 +258,53 @@ public abstract class AbstractRestController<E, T, S extends AbstractService<E,
 		  }
 		]
 	 *
+	 * * Cursor Pagination
+	 * An empty cursor requests the first page, each page returns the cursor of the next one, null after the last page.
+	 * Request Example: GET /api/v1/countries?cursor=&pageSize=2&filter=region eq Americas&includeProperties=name
+	 * Response Example:
+		{
+		  "items": [
+		    {
+		      "name": "Anguilla"
+		    },
+		    {
+		      "name": "Antigua and Barbuda"
+		    }
+		  ],
+		  "nextCursor": "Mi5Bb0d6RjhFVzNmWHBnY0RNOWQ1cTV3"
+		}
+	 *
+	 * * Delta Sync
+	 * Returns the entities added, changed or removed since a version of the dataset. An unknown version is invalid and requires a full download.
+	 * Request Example: GET /api/v1/countries?since=1611014400000&includeProperties=alpha2Code,name
+	 * Response Example:
+		{
+		  "since": 1611014400000,
+		  "version": 1611100800000,
+		  "added": [],
+		  "changed": [
+		    {
+		      "alpha2Code": "MK",
+		      "name": "North Macedonia"
+		    }
+		  ],
+		  "removed": []
+		}
+	 *
+	 * * Filter Operators
+	 * Operators: eq, ne, gt, ge, lt, le, in, startswith, endswith, contains, tolower, and, or, not and parentheses.
+	 * Request Example: GET /api/v1/countries?filter=region eq Americas and (area gt 1000000 or startswith(name, 'Ch'))&includeProperties=name
+	 * Response Example:
+		[
+		  {
+		    "name": "Argentina"
+		  },
+		  {
+		    "name": "Bolivia (Plurinational State of)"
+		  },
+		  ...
+		]
+	 *
 	 * * Including Properties
 	 * Request Example: GET /api/v1/countries?includeProperties=name
 	 * Response Example:
@@ -105,6 +318,21 @@ public abstract class AbstractRestController<E, T, S extends AbstractService<E,
 		  ...
 		]
 	 *
+	 * * Nested Properties
+	 * A property path includes or ignores only the nested property, a property alone its whole value.
+	 * Request Example: GET /api/v1/countries?filter=alpha2Code eq BR&includeProperties=name,currencies.code
+	 * Response Example:
+		[
+		  {
+		    "name": "Brazil",
+		    "currencies": [
+		      {
+		        "code": "BRL"
+		      }
+		    ]
+		  }
+		]
+	 *
 	 * * Ignoring Properties
 	 * Request Example: GET /api/v1/countries?ignoreProperties=name
 	 * Response Example:
@@ -125,15 +353,22 @@ public abstract class AbstractRestController<E, T, S extends AbstractService<E,
 	 * </pre>
 	 */
 	@GetMapping
-	public MappingJacksonValue findAllMapping(@RequestParam(defaultValue = FIRST_PAGE) Integer pageNumber, @RequestParam(defaultValue = PAGE_SIZE) Integer pageSize,
-			@RequestParam(required = false) String filter, @RequestParam(required = false) String includeProperties,
-			@RequestParam(required = false) String ignoreProperties) {
-		return responseMapping(includeProperties, ignoreProperties, findAll(pageNumber, pageSize, filter));
+	public ResponseEntity<byte[]> findAllMapping(@RequestParam(defaultValue = FIRST_PAGE) Integer pageNumber, @RequestParam(defaultValue = PAGE_SIZE) Integer pageSize,
+			@RequestParam(required = false) String filter, @RequestParam(required = false) String cursor, @RequestParam(required = false) Long since,
+			@RequestParam(required = false) String includeProperties, @RequestParam(required = false) String ignoreProperties, WebRequest request,
+			HttpServletResponse response) throws IOException {
+		if (since != null) {
+			return deltaBytes(request, null, since, filter, includeProperties, ignoreProperties);
+		}
+		return responseBytes(request, response, () -> findAllKey(null, pageNumber, pageSize, filter, cursor, includeProperties, ignoreProperties),
+				() -> findAllResultSet(null, pageNumber, pageSize, filter, cursor), includeProperties, ignoreProperties);
 	}
 
 	/**
 	 * Find all entity translations by locale that match the filter including or
 	 * excluding properties. The ResultSet can be paginated for performance reasons.
+	 * As for entities, a since version returns only the translations added,
+	 * changed or removed since then.
 	 *
 	 * <pre>
 	 * 
@@ -167,10 +402,159 @@ public abstract class AbstractRestController<E, T, S extends AbstractService<E,
 	 * </pre>
 	 */
 	@GetMapping("/translations/{locale}")
-	public MappingJacksonValue findAllTranslationsMapping(@PathVariable String locale, @RequestParam(defaultValue = FIRST_PAGE) Integer pageNumber,
+	public ResponseEntity<byte[]> findAllTranslationsMapping(@PathVariable String locale, @RequestParam(defaultValue = FIRST_PAGE) Integer pageNumber,
 			@RequestParam(defaultValue = PAGE_SIZE) Integer pageSize, @RequestParam(required = false) String filter,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Long since, @RequestParam(required = false) String includeProperties,
+			@RequestParam(required = false) String ignoreProperties, WebRequest request, HttpServletResponse response) throws IOException {
+		if (since != null) {
+			return deltaBytes(request, locale, since, filter, includeProperties, ignoreProperties);
+		}
+		return responseBytes(request, response, () -> findAllKey(locale, pageNumber, pageSize, filter, cursor, includeProperties, ignoreProperties),
+				() -> findAllResultSet(locale, pageNumber, pageSize, filter, cursor), includeProperties, ignoreProperties);
+	}
+
+	/**
+	 * Find the entity translations by locale whose name, or one of its words,
+	 * starts with the prefix ignoring case and accents. Intended for autocomplete
+	 * fields.
+	 *
+	 * <pre>
+	 * 
+	 * Request Example: GET /api/v1/countries/translations/pt_BR/autocomplete?prefix=uni&limit=2
+	 * Response Example:
+		[
+		  {
+		    "alpha2Code": "GB",
+		    "country": "Reino Unido"
+		  },
+		  {
+		    "alpha2Code": "AE",
+		    "country": "Emirados Árabes Unidos"
+		  }
+		]
+	 * </pre>
+	 */
+	@GetMapping("/translations/{locale}/autocomplete")
+	public MappingJacksonValue findAllTranslationsByPrefixMapping(@PathVariable String locale, @RequestParam String prefix,
+			@RequestParam(defaultValue = AUTOCOMPLETE_LIMIT) Integer limit, @RequestParam(required = false) String includeProperties,
+			@RequestParam(required = false) String ignoreProperties) {
+		return responseMapping(includeProperties, ignoreProperties, findAllTranslationsByPrefix(limit, prefix, locale));
+	}
+
+	/**
+	 * Find the codes whose translated name, in any locale, matches the name
+	 * ignoring case and accents. Misspelled names are matched approximately and
+	 * the candidates are ranked by score.
+	 *
+	 * <pre>
+	 * 
+	 * Request Example: GET /api/v1/countries/translations/lookup?name=Alemania&limit=2
+	 * Response Example:
+		[
+		  {
+		    "code": "DE",
+		    "name": "Alemania",
+		    "score": 1.0
+		  },
+		  ...
+		]
+	 * </pre>
+	 */
+	@GetMapping("/translations/lookup")
+	public MappingJacksonValue findAllTranslationsByNameMapping(@RequestParam String name, @RequestParam(defaultValue = AUTOCOMPLETE_LIMIT) Integer limit,
 			@RequestParam(required = false) String includeProperties, @RequestParam(required = false) String ignoreProperties) {
-		return responseMapping(includeProperties, ignoreProperties, findAllTranslations(pageNumber, pageSize, filter, locale));
+		return responseMapping(includeProperties, ignoreProperties, findAllTranslationsByName(limit, name));
+	}
+
+	/**
+	 * Find the name of the entity translations that match the filter in each of
+	 * the locales, comma separated or * for all of them, in one request.
+	 *
+	 * <pre>
+	 * 
+	 * Request Example: GET /api/v1/countries/translations?locales=en,es,pt_BR&filter=alpha2Code in ('DE', 'US')
+	 * Response Example:
+		{
+		  "DE": {
+		    "en": "Germany",
+		    "es": "Alemania",
+		    "pt_BR": "Alemanha"
+		  },
+		  "US": {
+		    "en": "United States",
+		    "es": "Estados Unidos",
+		    "pt_BR": "Estados Unidos"
+		  }
+		}
+	 * </pre>
+	 */
+	@GetMapping("/translations")
+	public Map<String, Map<String, String>> findAllTranslationsByLocalesMapping(@RequestParam String locales,
+			@RequestParam(required = false) String filter) {
+		return findAllTranslationsByLocales(filter, locales);
+	}
+
+	/**
+	 * Answers the invalid arguments of a request, e.g. a negative limit or a
+	 * malformed filter, with a Bad Request instead of an Internal Server Error.
+	 */
+	@ExceptionHandler(IllegalArgumentException.class)
+	public void handleIllegalArgument(IllegalArgumentException e, HttpServletResponse response) throws IOException {
+		response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+	}
+
+	/**
+	 * Returns the serialized ResultSet of the entities, or of their translations
+	 * if a locale is given, exactly as the findAll end-points respond it, from
+	 * the cache when possible. Used by batches, which embed it as is.
+	 */
+	public byte[] findAllBytes(String locale, Integer pageNumber, Integer pageSize, String filter, String cursor, String includeProperties,
+			String ignoreProperties) throws IOException {
+		String key = findAllKey(locale, pageNumber, pageSize, filter, cursor, includeProperties, ignoreProperties);
+		CachedResponse cachedResponse = responseCache.get(key);
+		if (cachedResponse != null) {
+			return cachedResponse.getBody();
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writeStream(out, findAllResultSet(locale, pageNumber, pageSize, filter, cursor), includeProperties, ignoreProperties);
+		byte[] body = out.toByteArray();
+		if (key.equals(findAllKey(locale, pageNumber, pageSize, filter, cursor, includeProperties, ignoreProperties))) {
+			// not reloaded meanwhile
+			responseCache.put(key, body);
+		}
+		return body;
+	}
+
+	/**
+	 * The name of the resource, e.g. countries.
+	 */
+	public String getResource() {
+		return resource.substring(resource.lastIndexOf('/') + 1);
+	}
+
+	/**
+	 * The cache key of a findAll request, of the translations if a locale is
+	 * given.
+	 */
+	private String findAllKey(String locale, Integer pageNumber, Integer pageSize, String filter, String cursor, String includeProperties,
+			String ignoreProperties) {
+		if (locale == null) {
+			return responseKey(resource, getVersion(), pageNumber, pageSize, filter, cursor, includeProperties, ignoreProperties);
+		}
+		return responseKey(resource + "/translations/" + locale, getTranslationsVersion(locale), pageNumber, pageSize, filter, cursor,
+				includeProperties, ignoreProperties);
+	}
+
+	/**
+	 * The ResultSet of a findAll request, of the translations if a locale is
+	 * given, paginated by cursor or else by page number.
+	 */
+	private Iterator<?> findAllResultSet(String locale, Integer pageNumber, Integer pageSize, String filter, String cursor) {
+		if (locale == null) {
+			return cursor != null ? findAllByCursor(cursor, pageSize, filter) : streamAll(pageNumber, pageSize, filter).iterator();
+		}
+		return cursor != null ? findAllTranslationsByCursor(cursor, pageSize, filter, locale)
+				: streamAllTranslations(pageNumber, pageSize, filter, locale).iterator();
 	}
 
 	/**
@@ -178,10 +562,189 @@ public abstract class AbstractRestController<E, T, S extends AbstractService<E,
 	 */
 	private MappingJacksonValue responseMapping(String includeProperties, String ignoreProperties, List<?> response) {
 		MappingJacksonValue mappingResponse = new MappingJacksonValue(response);
-		SimpleBeanPropertyFilter propertiesFilter = isNotBlank(includeProperties) ? filterOutAllExcept(strip(includeProperties).split(COMMA_SEPARATOR))
-				: isNotBlank(ignoreProperties) ? serializeAllExcept(strip(ignoreProperties).split(COMMA_SEPARATOR)) : serializeAll();
-		mappingResponse.setFilters(new SimpleFilterProvider().addFilter(Constants.FILTER_NAME, propertiesFilter));
+		mappingResponse.setFilters(Projection.compile(includeProperties, ignoreProperties).getFilterProvider());
 		return mappingResponse;
 	}
 
+	/**
+	 * Returns the serialized ResultSet from the cache, or streams it to the
+	 * client as it is filtered and caches it if it is small enough. The ETag is
+	 * derived from the key, which includes the version of the data, so a
+	 * conditional request is answered before filtering. Clients that accept gzip
+	 * get the cached gzip encoding. The ETag is weak, so the streamed and the
+	 * cached responses, either encoded or not, share it. The key is computed again
+	 * before caching, so a ResultSet of a reloaded version is not cached under
+	 * the key of the previous one.
+	 */
+	private ResponseEntity<byte[]> responseBytes(WebRequest request, HttpServletResponse response, Supplier<String> responseKey,
+			Supplier<Iterator<?>> resultSet, String includeProperties, String ignoreProperties) throws IOException {
+		String key = responseKey.get();
+		String datasetVersion = String.valueOf(getDatasetVersion());
+		boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+		String eTag = WEAK_ETAG_PREFIX + "\"" + ContentHash.of(key) + "\"";
+		CacheControl cacheControl = CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic();
+		if (request.checkNotModified(eTag)) {
+			// the ETag header is already set by the request
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT_ENCODING)
+					.header(DATASET_VERSION_HEADER, datasetVersion).build();
+		}
+		CachedResponse cachedResponse = responseCache.get(key);
+		if (cachedResponse == null) {
+			Iterator<?> entities = resultSet.get();
+			response.setStatus(HttpStatus.OK.value());
+			response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+			// streamed without compression
+			response.setHeader(HttpHeaders.ETAG, eTag);
+			response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+			response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			response.setHeader(DATASET_VERSION_HEADER, datasetVersion);
+			byte[] body = writeStream(response.getOutputStream(), entities, includeProperties, ignoreProperties);
+			if (body != null && key.equals(responseKey.get())) {
+				responseCache.put(key, body);
+			}
+			return null;
+		}
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT_ENCODING)
+				.header(DATASET_VERSION_HEADER, datasetVersion).contentType(MediaType.APPLICATION_JSON);
+		byte[] gzipBody = gzip ? cachedResponse.getGzipBody() : null;
+		if (gzipBody != null) {
+			return builder.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(gzipBody);
+		}
+		return builder.body(cachedResponse.getBody());
+	}
+
+	/**
+	 * Returns the serialized delta since the version, from the cache when
+	 * possible. A client that is up to date gets an empty delta without any
+	 * comparison. The key includes the version of the dataset, which the delta
+	 * reaches, so its ETag is revalidated as the findAll ones are.
+	 */
+	private ResponseEntity<byte[]> deltaBytes(WebRequest request, String locale, long since, String filter, String includeProperties,
+			String ignoreProperties) throws IOException {
+		Supplier<String> deltaKey = () -> findAllKey(locale, FIRST_PAGE_INT, Integer.MAX_VALUE, filter, null, includeProperties, ignoreProperties)
+				+ KEY_SEPARATOR + SINCE_PREFIX + since + KEY_SEPARATOR + getDatasetVersion();
+		String key = deltaKey.get();
+		long version = getDatasetVersion();
+		String eTag = WEAK_ETAG_PREFIX + "\"" + ContentHash.of(key) + "\"";
+		CacheControl cacheControl = CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic();
+		if (request.checkNotModified(eTag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).header(DATASET_VERSION_HEADER, String.valueOf(version))
+					.build();
+		}
+		CachedResponse cachedResponse = responseCache.get(key);
+		byte[] body;
+		if (cachedResponse != null) {
+			body = cachedResponse.getBody();
+		} else {
+			Delta<?> delta = locale == null ? findAllSince(since, filter) : findAllTranslationsSince(since, filter, locale);
+			version = delta.getVersion();
+			body = writeDelta(delta, includeProperties, ignoreProperties);
+			if (key.equals(deltaKey.get())) {
+				responseCache.put(key, body);
+			}
+		}
+		return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).header(DATASET_VERSION_HEADER, String.valueOf(version))
+				.contentType(MediaType.APPLICATION_JSON).body(body);
+	}
+
+	/**
+	 * Writes the delta with every row projected on its own, as if it were at the
+	 * root of a findAll array, since the projection follows the path of the
+	 * written properties.
+	 */
+	private byte[] writeDelta(Delta<?> delta, String includeProperties, String ignoreProperties) throws IOException {
+		ObjectWriter writer = jsonUtil.getObjectMapper().writer(Projection.compile(includeProperties, ignoreProperties).getFilterProvider());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (JsonGenerator generator = writer.getFactory().createGenerator(out)) {
+			generator.writeStartObject();
+			generator.writeNumberField(SINCE_FIELD, delta.getSince());
+			generator.writeNumberField(VERSION_FIELD, delta.getVersion());
+			writeRows(generator, writer, ADDED_FIELD, delta.getAdded());
+			writeRows(generator, writer, CHANGED_FIELD, delta.getChanged());
+			writeRows(generator, writer, REMOVED_FIELD, delta.getRemoved());
+			generator.writeEndObject();
+		}
+		return out.toByteArray();
+	}
+
+	private static void writeRows(JsonGenerator generator, ObjectWriter writer, String fieldName, List<?> rows) throws IOException {
+		generator.writeArrayFieldStart(fieldName);
+		for (Object row : rows) {
+			generator.writeRawValue(writer.writeValueAsString(row));
+		}
+		generator.writeEndArray();
+	}
+
+	/**
+	 * Writes the entities as a JSON array while they are filtered, flushing every
+	 * chunk, so neither the ResultSet nor its serialization are held in memory. A
+	 * {@link CursorPage} is wrapped in an object along with the next cursor.
+	 * The output is closed at the end, which completes the response. Returns the
+	 * written bytes if they fit in a cache entry, or else null.
+	 */
+	private byte[] writeStream(OutputStream out, Iterator<?> entities, String includeProperties, String ignoreProperties) throws IOException {
+		ObjectWriter writer = jsonUtil.getObjectMapper().writer(Projection.compile(includeProperties, ignoreProperties).getFilterProvider())
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		TeeOutputStream tee = new TeeOutputStream(out, responseCache.getMaxEntryBytes());
+		try (JsonGenerator generator = writer.getFactory().createGenerator(tee)) {
+			if (entities instanceof CursorPage) {
+				generator.writeStartObject();
+				generator.writeFieldName(ITEMS_FIELD);
+			}
+			generator.writeStartArray();
+			long flushed = 0;
+			while (entities.hasNext()) {
+				writer.writeValue(generator, entities.next());
+				if (tee.getCount() + generator.getOutputBuffered() - flushed >= CHUNK_SIZE) {
+					generator.flush();
+					flushed = tee.getCount();
+				}
+			}
+			generator.writeEndArray();
+			if (entities instanceof CursorPage) {
+				generator.writeStringField(NEXT_CURSOR_FIELD, ((CursorPage<?>) entities).getNextCursor());
+				generator.writeEndObject();
+			}
+		}
+		return tee.toByteArray();
+	}
+
+	/**
+	 * Whether the Accept-Encoding header allows gzip, that is, it lists gzip, or
+	 * else *, without a zero quality.
+	 */
+	private static boolean acceptsGzip(String acceptEncoding) {
+		boolean anyAccepted = false;
+		if (acceptEncoding != null) {
+			for (String coding : acceptEncoding.split(COMMA_SEPARATOR)) {
+				String[] parameters = coding.split(";");
+				String name = parameters[0].trim();
+				boolean accepted = true;
+				for (int i = 1; i < parameters.length; i++) {
+					String parameter = parameters[i].trim();
+					if (parameter.startsWith("q=")) {
+						accepted = NumberUtils.toDouble(parameter.substring(2)) > 0;
+					}
+				}
+				if (GZIP.equalsIgnoreCase(name) || "x-gzip".equalsIgnoreCase(name)) {
+					return accepted;
+				}
+				if ("*".equals(name)) {
+					anyAccepted = accepted;
+				}
+			}
+		}
+		return anyAccepted;
+	}
+
+	/**
+	 * Normalizes the request so that equivalent requests share the same cached
+	 * response: the filter in its canonical form and the properties sorted.
+	 */
+	private static String responseKey(String resource, String version, Integer pageNumber, Integer pageSize, String filter, String cursor,
+			String includeProperties, String ignoreProperties) {
+		return String.join(KEY_SEPARATOR, resource, version, FilterCompiler.compile(filter).toString(), String.valueOf(pageNumber), String.valueOf(pageSize),
+				cursor != null ? CURSOR_PREFIX + cursor : "", Projection.key(includeProperties, ignoreProperties));
+	}
+
 }
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.ws;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.jereztech.openapis.support.JsonUtil;
+import com.jereztech.openapis.v1.data.BatchQuery;
+import com.jereztech.openapis.v1.services.DatasetRegistry;
+
+/**
+ * Defines the end-point to run several queries, of any resource, in one
+ * request.
+ * 
+ * @author Joel Jerez
+ */
+@RestController
+@RequestMapping("/v1/batch")
+public class BatchRestController {
+
+	private static final String DATA_FIELD = "data";
+	private static final String ERROR_FIELD = "error";
+
+	private final Map<String, AbstractRestController<?, ?, ?>> controllers = new HashMap<>();
+
+	private final DatasetRegistry datasetRegistry;
+
+	private final JsonUtil jsonUtil;
+
+	private final int maxQueries;
+
+	public BatchRestController(List<AbstractRestController<?, ?, ?>> controllers, DatasetRegistry datasetRegistry, JsonUtil jsonUtil,
+			@Value("${openapis.batch.max-queries}") int maxQueries) {
+		for (AbstractRestController<?, ?, ?> controller : controllers) {
+			this.controllers.put(controller.getResource(), controller);
+		}
+		this.datasetRegistry = datasetRegistry;
+		this.jsonUtil = jsonUtil;
+		this.maxQueries = maxQueries;
+	}
+
+	/**
+	 * Runs the queries, in parallel if there are several, and responds their
+	 * results in the same order. Each result holds the data, as the findAll
+	 * end-point of its resource responds it, or the error of the query, so one
+	 * invalid query does not fail the others. All the queries read the same
+	 * snapshot of the datasets, even if they are reloaded meanwhile.
+	 *
+	 * <pre>
+	 * 
+	 * Request Example: POST /api/v1/batch
+		[
+		  {
+		    "resource": "countries",
+		    "filter": "alpha2Code eq BR",
+		    "includeProperties": "name"
+		  },
+		  {
+		    "resource": "languages",
+		    "locale": "es",
+		    "filter": "code eq pt"
+		  }
+		]
+	 * Response Example:
+		[
+		  {
+		    "data": [
+		      {
+		        "name": "Brazil"
+		      }
+		    ]
+		  },
+		  {
+		    "data": [
+		      {
+		        "code": "pt",
+		        "language": "portugués"
+		      }
+		    ]
+		  }
+		]
+	 * </pre>
+	 */
+	@PostMapping
+	public ResponseEntity<byte[]> findAllMapping(@RequestBody List<BatchQuery> queries) throws IOException {
+		if (queries.size() > maxQueries) {
+			throw new IllegalArgumentException("Invalid batch.");
+		}
+		Map<Object, Object> snapshot = datasetRegistry.snapshot();
+		Stream<BatchQuery> stream = queries.size() > 1 ? queries.parallelStream() : queries.stream();
+		List<Object> results = stream.map(query -> datasetRegistry.pin(snapshot, () -> execute(query))).collect(Collectors.toList());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (JsonGenerator generator = jsonUtil.getObjectMapper().getFactory().createGenerator(out)) {
+			generator.writeStartArray();
+			for (Object result : results) {
+				generator.writeStartObject();
+				if (result instanceof byte[]) {
+					generator.writeFieldName(DATA_FIELD);
+					generator.writeRawValue(new String((byte[]) result, StandardCharsets.UTF_8));
+				} else {
+					generator.writeStringField(ERROR_FIELD, (String) result);
+				}
+				generator.writeEndObject();
+			}
+			generator.writeEndArray();
+		}
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(out.toByteArray());
+	}
+
+	/**
+	 * Answers an invalid batch with a Bad Request.
+	 */
+	@ExceptionHandler(IllegalArgumentException.class)
+	public void handleIllegalArgument(IllegalArgumentException e, HttpServletResponse response) throws IOException {
+		response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+	}
+
+	/**
+	 * Returns the serialized ResultSet of the query, or else the message of its
+	 * invalid argument. Any other failure is not the query's fault and fails the
+	 * whole batch.
+	 */
+	private Object execute(BatchQuery query) {
+		AbstractRestController<?, ?, ?> controller = controllers.get(query.getResource());
+		if (controller == null) {
+			return "Invalid resource.";
+		}
+		try {
+			return controller.findAllBytes(query.getLocale(), query.getPageNumber(), query.getPageSize(), query.getFilter(), query.getCursor(),
+					query.getIncludeProperties(), query.getIgnoreProperties());
+		} catch (IllegalArgumentException e) {
+			return e.getMessage();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.ws;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A serialized response along with its gzip encoding, compressed the first
+ * time a client asks for it, so the responses the cache does not admit, or
+ * that only identity clients request, are never compressed. Small responses
+ * are not worth compressing and have no gzip encoding.
+ * 
+ * @author Joel Jerez
+ */
+public class CachedResponse {
+
+	private static final int MIN_GZIP_SIZE = 2048;
+	private static final int GZIP_RATIO = 4;
+
+	private final byte[] body;
+	private volatile byte[] gzipBody;
+
+	public CachedResponse(byte[] body) {
+		this.body = body;
+	}
+
+	public byte[] getBody() {
+		return body;
+	}
+
+	/**
+	 * The gzip encoding of the body, or null if it is too small. Concurrent
+	 * first requests may compress it more than once, the last one wins.
+	 */
+	public byte[] getGzipBody() {
+		byte[] gzipBody = this.gzipBody;
+		if (gzipBody == null && body.length >= MIN_GZIP_SIZE) {
+			gzipBody = gzip(body);
+			this.gzipBody = gzipBody;
+		}
+		return gzipBody;
+	}
+
+	/**
+	 * The weight of the response in the cache, which reserves room for its gzip
+	 * encoding before it exists. JSON compresses far below a quarter of its size.
+	 */
+	public long getBytes() {
+		return body.length + (body.length >= MIN_GZIP_SIZE ? body.length / GZIP_RATIO : 0);
+	}
+
+	private static byte[] gzip(byte[] body) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(bytes) {
+			{
+				def.setLevel(Deflater.BEST_COMPRESSION);
+			}
+		}) {
+			gzip.write(body);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+}
@@ -16,12 +16,25 @@
  ******************************************************************************/
 package com.jereztech.openapis.v1.ws;
 
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.jereztech.openapis.v1.data.Country;
 import com.jereztech.openapis.v1.data.CountryTranslation;
+import com.jereztech.openapis.v1.data.FlagSprite;
 import com.jereztech.openapis.v1.services.CountryService;
+import com.jereztech.openapis.v1.services.Flag;
+import com.jereztech.openapis.v1.services.FlagSet;
 
 /**
  * Defines the end-point for countries search.
@@ -32,8 +45,86 @@ import com.jereztech.openapis.v1.services.CountryService;
 @RequestMapping("/v1/countries")
 public class CountryRestController extends AbstractRestController<Country, CountryTranslation, CountryService> {
 
+	private static final String FLAG_SPRITE_SIZE = "32";
+	private static final CacheControl FLAG_CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic();
+
 	public CountryRestController(CountryService service) {
 		super(service);
 	}
 
+	/**
+	 * Find the flag of a country, in its original size of 128 pixels or resized
+	 * to 16, 32 or 64. The flags are served from memory and can be cached by
+	 * clients for a year, then revalidated with the ETag or Last-Modified.
+	 *
+	 * <pre>
+	 * 
+	 * Request Example: GET /api/v1/countries/BR/flag?size=32
+	 * Response Example: the PNG image
+	 * </pre>
+	 */
+	@GetMapping("/{alpha2Code}/flag")
+	public ResponseEntity<byte[]> findFlagMapping(@PathVariable String alpha2Code, @RequestParam(required = false) Integer size, WebRequest request) {
+		return flagResponse(size != null ? service.findFlag(alpha2Code, size) : service.findFlag(alpha2Code), request);
+	}
+
+	/**
+	 * Find the sprite sheet of all the flags in one size, so a flag picker needs
+	 * a single image. The offsets of each flag are in the manifest.
+	 *
+	 * <pre>
+	 * 
+	 * Request Example: GET /api/v1/countries/flags/sprite.png?size=32
+	 * Response Example: the PNG image
+	 * </pre>
+	 */
+	@GetMapping("/flags/sprite.png")
+	public ResponseEntity<byte[]> findFlagSpriteMapping(@RequestParam(defaultValue = FLAG_SPRITE_SIZE) Integer size, WebRequest request) {
+		return flagResponse(service.findFlagSprite(size).getSprite(), request);
+	}
+
+	/**
+	 * Find the manifest of a flag sprite sheet: its size and the [x, y] offset of
+	 * each flag by alpha2Code. It shares the ETag of the sprite sheet.
+	 *
+	 * <pre>
+	 * 
+	 * Request Example: GET /api/v1/countries/flags/sprite.json?size=32
+	 * Response Example:
+		{
+		  "size": 32,
+		  "width": 512,
+		  "height": 512,
+		  "offsets": {
+		    "AD": [0, 0],
+		    "AE": [32, 0],
+		    ...
+		  }
+		}
+	 * </pre>
+	 */
+	@GetMapping("/flags/sprite.json")
+	public ResponseEntity<FlagSprite> findFlagSpriteManifestMapping(@RequestParam(defaultValue = FLAG_SPRITE_SIZE) Integer size, WebRequest request) {
+		FlagSet flagSet = service.findFlagSprite(size);
+		String eTag = "\"" + flagSet.getSprite().getETag() + "\"";
+		if (request.checkNotModified(eTag)) {
+			// the ETag header is already set by the request
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(FLAG_CACHE_CONTROL).build();
+		}
+		return ResponseEntity.ok().eTag(eTag).cacheControl(FLAG_CACHE_CONTROL).body(flagSet.getManifest());
+	}
+
+	private static ResponseEntity<byte[]> flagResponse(Flag flag, WebRequest request) {
+		if (flag == null) {
+			return ResponseEntity.notFound().build();
+		}
+		String eTag = "\"" + flag.getETag() + "\"";
+		if (request.checkNotModified(eTag, flag.getLastModified())) {
+			// the validators are already set by the request
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(FLAG_CACHE_CONTROL).build();
+		}
+		return ResponseEntity.ok().eTag(eTag).lastModified(flag.getLastModified()).cacheControl(FLAG_CACHE_CONTROL).contentType(MediaType.IMAGE_PNG)
+				.body(flag.getBytes());
+	}
+
 }
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.ws;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.MessageDigest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jereztech.openapis.v1.services.DatasetLoader;
+
+/**
+ * Defines the end-point to reload the datasets on demand, which works in a
+ * packaged deployment too, where the sources cannot be watched. It is only
+ * enabled if the reload token is set.
+ * 
+ * @author Joel Jerez
+ */
+@RestController
+@RequestMapping("/v1/datasets")
+public class DatasetRestController {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DatasetRestController.class);
+
+	private static final String RELOAD_TOKEN_HEADER = "X-Reload-Token";
+
+	private final DatasetLoader datasetLoader;
+
+	private final byte[] token;
+
+	public DatasetRestController(DatasetLoader datasetLoader, @Value("${openapis.reload.token}") String token) {
+		this.datasetLoader = datasetLoader;
+		this.token = token.trim().getBytes(UTF_8);
+	}
+
+	/**
+	 * Reloads the datasets from their source files, the data directory or else
+	 * the classpath, and publishes them together. If any of them cannot be
+	 * read, the current ones are kept and it fails.
+	 *
+	 * <pre>
+	 * 
+	 * Request Example: POST /api/v1/datasets/reload
+	 * 	X-Reload-Token: ...
+	 * Response Example: 204 No Content
+	 * </pre>
+	 */
+	@PostMapping("/reload")
+	public ResponseEntity<String> reloadMapping(@RequestHeader(name = RELOAD_TOKEN_HEADER, required = false) String token) {
+		if (this.token.length == 0) {
+			return ResponseEntity.notFound().build();
+		}
+		// compared in constant time, so the token cannot be guessed by timing
+		if (token == null || !MessageDigest.isEqual(this.token, token.getBytes(UTF_8))) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		try {
+			datasetLoader.load();
+		} catch (IllegalStateException e) {
+			LOGGER.error("Cannot reload the datasets, the current ones are kept.", e);
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+		}
+		return ResponseEntity.noContent().build();
+	}
+
+}
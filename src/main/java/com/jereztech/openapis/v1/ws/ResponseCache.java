@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.ws;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.jereztech.openapis.support.TinyLfuCache;
+
+/**
+ * Keeps the serialized responses of every end-point, keyed by their normalized
+ * request, so repeated requests skip filtering, serialization and
+ * compression.
+ * 
+ * @author Joel Jerez
+ */
+@Component
+public class ResponseCache {
+
+	private final TinyLfuCache<String, CachedResponse> cache;
+	private final int maxEntryBytes;
+
+	public ResponseCache(@Value("${openapis.cache.responses.max-bytes}") long maxBytes,
+			@Value("${openapis.cache.responses.max-entry-bytes}") int maxEntryBytes) {
+		this.cache = new TinyLfuCache<>(maxBytes, CachedResponse::getBytes);
+		this.maxEntryBytes = maxEntryBytes;
+	}
+
+	/**
+	 * The size of the largest response worth keeping.
+	 */
+	public int getMaxEntryBytes() {
+		return maxEntryBytes;
+	}
+
+	public CachedResponse get(String key) {
+		return cache.get(key);
+	}
+
+	public void put(String key, byte[] body) {
+		if (body.length <= maxEntryBytes) {
+			cache.put(key, new CachedResponse(body));
+		}
+	}
+
+}
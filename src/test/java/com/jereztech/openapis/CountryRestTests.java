@@ -19,32 +19,77 @@ package com.jereztech.openapis;
 import static com.jereztech.openapis.support.Constants.FIRST_PAGE_INT;
 import static com.jereztech.openapis.support.Constants.PAGE_NUMBER_2;
 import static com.jereztech.openapis.support.Constants.PAGE_SIZE_3;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
-import java.io.IOException;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import javax.imageio.ImageIO;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.StreamUtils;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jereztech.openapis.support.ResourcePaths;
 import com.jereztech.openapis.v1.data.Country;
 import com.jereztech.openapis.v1.data.CountryTranslation;
+import com.jereztech.openapis.v1.data.RegionalBloc;
+import com.jereztech.openapis.v1.data.TranslationMatch;
+import com.jereztech.openapis.v1.services.CursorPage;
+import com.jereztech.openapis.v1.services.DatasetLoader;
+import com.jereztech.openapis.v1.services.Delta;
+import com.jereztech.openapis.v1.services.Flag;
+import com.jereztech.openapis.v1.services.FlagSet;
 import com.jereztech.openapis.v1.ws.CountryRestController;
 
 /**
  * @author Joel Jerez
  */
-@SpringBootTest
+@SpringBootTest(properties = { "openapis.data.dir=" + CountryRestTests.DATA_DIR, "openapis.reload.token=" + CountryRestTests.RELOAD_TOKEN })
+@AutoConfigureMockMvc
 class CountryRestTests {
 
+	static final String DATA_DIR = "target/test-data";
+	static final String RELOAD_TOKEN = "test-token";
+
 	@Autowired
 	private CountryRestController countryRestController;
 
+	@Autowired
+	private DatasetLoader datasetLoader;
+
+	@Autowired
+	private MockMvc mockMvc;
+
 	@Autowired
 	private ObjectMapper objectMapper;
 
@@ -57,12 +102,124 @@ class CountryRestTests {
 		assertEquals(countries.get(0).getName(), "Angola");
 	}
 
+	@Test
+	void testCursorPagination() throws Exception {
+		List<Country> countries = new ArrayList<>();
+		String cursor = "";
+		do {
+			CursorPage<Country> page = countryRestController.findAllByCursor(cursor, PAGE_SIZE_3, "region eq Americas");
+			page.forEachRemaining(countries::add);
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		assertEquals(countries, countryRestController.findAll(FIRST_PAGE_INT, Integer.MAX_VALUE, "region eq Americas"));
+		assertThrows(IllegalArgumentException.class, () -> countryRestController.findAllByCursor("Mi5hYmM", PAGE_SIZE_3, "region eq Americas"));
+		CursorPage<Country> firstPage = countryRestController.findAllByCursor("", PAGE_SIZE_3, "region eq Americas");
+		firstPage.forEachRemaining(country -> {
+		});
+		String nextCursor = firstPage.getNextCursor();
+		assertNotNull(nextCursor);
+		assertThrows(IllegalArgumentException.class, () -> countryRestController.findAllByCursor(nextCursor, PAGE_SIZE_3 + 1, "region eq Americas"));
+		assertThrows(IllegalArgumentException.class, () -> countryRestController.findAllByCursor("", 0, "region eq Americas"));
+		assertEquals(mockMvc.perform(get("/v1/countries").param("cursor", "").param("pageSize", "0")).andReturn().getResponse().getStatus(),
+				HttpStatus.BAD_REQUEST.value());
+		assertTrue(countryRestController.findAll(Integer.MAX_VALUE, Integer.MAX_VALUE, null).isEmpty());
+	}
+
+	@Test
+	void testReload() throws Exception {
+		String version = countryRestController.getVersion();
+		long datasetVersion = countryRestController.getDatasetVersion();
+		CursorPage<Country> page = countryRestController.findAllByCursor("", PAGE_SIZE_3, "region eq Americas");
+		datasetLoader.load();
+		assertEquals(countryRestController.getVersion(), version);
+		assertEquals(countryRestController.getDatasetVersion(), datasetVersion);
+		assertTrue(countryRestController.findAllSince(datasetVersion, null).getChanged().isEmpty());
+		assertEquals(page.next().getName(), "Anguilla");
+		assertEquals(countryRestController.findAll(FIRST_PAGE_INT, PAGE_SIZE_3, "alpha2Code eq BR").get(0).getName(), "Brazil");
+		assertEquals(countryRestController.findAllTranslations(FIRST_PAGE_INT, PAGE_SIZE_3, "alpha2Code eq DE", "es").get(0).getCountry(), "Alemania");
+		assertEquals(mockMvc.perform(get("/v1/countries/br/flag")).andReturn().getResponse().getStatus(), HttpStatus.OK.value());
+	}
+
+	@Test
+	void testReloadDataDirectory() throws Exception {
+		JsonNode countries = objectMapper.readTree(Files.readAllBytes(ResourcePaths.get("v1/countries/countries.json")));
+		((ObjectNode) countries.get(0)).put("name", "Patched");
+		long version = countryRestController.getDatasetVersion();
+		Path countriesFile = Paths.get(DATA_DIR, "v1/countries/countries.json");
+		Files.createDirectories(countriesFile.getParent());
+		objectMapper.writeValue(countriesFile.toFile(), countries);
+		try {
+			assertEquals(mockMvc.perform(post("/v1/datasets/reload")).andReturn().getResponse().getStatus(), HttpStatus.FORBIDDEN.value());
+			assertEquals(mockMvc.perform(post("/v1/datasets/reload").header("X-Reload-Token", "invalid")).andReturn().getResponse().getStatus(),
+					HttpStatus.FORBIDDEN.value());
+			assertEquals(countryRestController.findAll(FIRST_PAGE_INT, PAGE_SIZE_3, null).get(0).getName(), "Afghanistan");
+			assertEquals(mockMvc.perform(post("/v1/datasets/reload").header("X-Reload-Token", RELOAD_TOKEN)).andReturn().getResponse().getStatus(),
+					HttpStatus.NO_CONTENT.value());
+			assertEquals(countryRestController.findAll(FIRST_PAGE_INT, PAGE_SIZE_3, null).get(0).getName(), "Patched");
+			assertEquals(countryRestController.findAllSince(version, null).getChanged().get(0).getName(), "Patched");
+		} finally {
+			Files.delete(countriesFile);
+			datasetLoader.load();
+		}
+		assertEquals(countryRestController.findAll(FIRST_PAGE_INT, PAGE_SIZE_3, null).get(0).getName(), "Afghanistan");
+		// the same content has the same version, as after a restart
+		assertEquals(countryRestController.getDatasetVersion(), version);
+		assertTrue(countryRestController.findAllSince(version, null).getChanged().isEmpty());
+	}
+
+	@Test
+	void testDelta() throws Exception {
+		long version = countryRestController.getDatasetVersion();
+		MockHttpServletResponse response = mockMvc.perform(get("/v1/countries").param("since", String.valueOf(version))).andReturn().getResponse();
+		assertEquals(response.getHeader("X-Dataset-Version"), String.valueOf(version));
+		assertEquals(objectMapper.readTree(response.getContentAsString(UTF_8)).get("changed").size(), 0);
+		assertNotNull(response.getHeader(HttpHeaders.CACHE_CONTROL));
+		assertEquals(mockMvc.perform(get("/v1/countries").param("since", String.valueOf(version)).header(HttpHeaders.IF_NONE_MATCH, response.getHeader(HttpHeaders.ETAG)))
+				.andReturn().getResponse().getStatus(), HttpStatus.NOT_MODIFIED.value());
+		assertThrows(IllegalArgumentException.class, () -> countryRestController.findAllSince(version - 1, null));
+		List<Country> previous = countryRestController.findAll(FIRST_PAGE_INT, PAGE_SIZE_3, null);
+		List<Country> current = new ArrayList<>();
+		for (Country country : countryRestController.findAll(1, PAGE_SIZE_3, null)) {
+			current.add(objectMapper.convertValue(objectMapper.convertValue(country, JsonNode.class), Country.class));
+		}
+		current.add(0, objectMapper.convertValue(objectMapper.convertValue(previous.get(0), JsonNode.class), Country.class));
+		current.get(0).setName("Changed");
+		current.add(objectMapper.convertValue(objectMapper.convertValue(previous.get(1), JsonNode.class), Country.class));
+		Delta<Country> delta = Delta.diff(objectMapper, 1, 2, previous, current, new String[] { "alpha2Code" });
+		assertEquals(delta.getChanged().get(0).getName(), "Changed");
+		assertEquals(delta.getAdded().size(), PAGE_SIZE_3);
+		assertEquals(delta.getRemoved().get(0).getAlpha2Code(), previous.get(2).getAlpha2Code());
+	}
+
 	@Test
 	void testFilter() {
 		List<Country> countries = countryRestController.findAll(FIRST_PAGE_INT, PAGE_SIZE_3, "alpha3Code eq BRA");
 		assertEquals(countries.get(0).getName(), "Brazil");
 	}
 
+	@Test
+	void testFilterOperators() {
+		List<Country> countries = countryRestController.findAll(FIRST_PAGE_INT, PAGE_SIZE_3,
+				"region eq Americas and (area gt 1000000 or startswith(name, 'Ch'))");
+		assertEquals(countries.get(0).getName(), "Argentina");
+		countries = countryRestController.findAll(FIRST_PAGE_INT, PAGE_SIZE_3, "alpha2Code in ('BR', 'AR') and not (name eq Argentina)");
+		assertEquals(countries.size(), 1);
+		assertEquals(countries.get(0).getName(), "Brazil");
+		assertThrows(IllegalArgumentException.class, () -> countryRestController.findAll(FIRST_PAGE_INT, PAGE_SIZE_3, "area gt"));
+	}
+
+	@Test
+	void testSharedValues() {
+		List<Country> countries = countryRestController.findAll(FIRST_PAGE_INT, PAGE_SIZE_3, "alpha2Code in ('ES', 'FR')");
+		assertEquals(countries.size(), 2);
+		assertSame(countries.get(0).getCurrencies()[0], countries.get(1).getCurrencies()[0]);
+		assertSame(countries.get(0).getRegionalBlocs()[0], countries.get(1).getRegionalBlocs()[0]);
+		assertSame(countries.get(0).getRegion(), countries.get(1).getRegion());
+		RegionalBloc regionalBloc = countryRestController.findAll(FIRST_PAGE_INT, PAGE_SIZE_3, "alpha2Code eq DZ").get(0).getRegionalBlocs()[0];
+		regionalBloc.getOtherNames()[0] = "Changed";
+		assertNotEquals(regionalBloc.getOtherNames()[0], "Changed");
+	}
+
 	@Test
 	void testTranslations() {
 		List<CountryTranslation> countries = countryRestController.findAllTranslations(FIRST_PAGE_INT, PAGE_SIZE_3, "alpha2Code eq US", "en");
@@ -72,20 +229,165 @@ class CountryRestTests {
 	}
 
 	@Test
-	@SuppressWarnings("unchecked")
-	void testIncludeProperties() throws IOException {
-		MappingJacksonValue jacksonValue = countryRestController.findAllMapping(FIRST_PAGE_INT, PAGE_SIZE_3, null, "currencies,numericCode", null);
-		String _response = objectMapper.writer(jacksonValue.getFilters()).writeValueAsString(((List<Country>) jacksonValue.getValue()).get(0));
+	void testTranslationsFallback() {
+		assertEquals(countryRestController.getTranslationsVersion("dz_BT"), countryRestController.getTranslationsVersion("dz"));
+		List<CountryTranslation> countries = countryRestController.findAllTranslations(FIRST_PAGE_INT, PAGE_SIZE_3, "alpha2Code eq DE", "es_CH");
+		assertEquals(countries.get(0).getCountry(), "Alemania");
+		assertEquals(countryRestController.getTranslationsVersion("sr_Cyrl_CH"), countryRestController.getTranslationsVersion("sr_Cyrl"));
+		assertThrows(IllegalArgumentException.class, () -> countryRestController.findAllTranslations(FIRST_PAGE_INT, PAGE_SIZE_3, null, "xx_ES"));
+	}
+
+	@Test
+	void testTranslationsByLocales() {
+		Map<String, Map<String, String>> names = countryRestController.findAllTranslationsByLocales("alpha2Code in ('DE', 'US')", "en, es,pt_BR");
+		assertEquals(names.keySet().toString(), "[DE, US]");
+		assertEquals(names.get("DE").toString(), "{en=Germany, es=Alemania, pt_BR=Alemanha}");
+		assertTrue(countryRestController.findAllTranslationsByLocales("alpha2Code eq BR", "*").get("BR").size() > 100);
+		assertThrows(IllegalArgumentException.class, () -> countryRestController.findAllTranslationsByLocales(null, "en,xx"));
+	}
+
+	@Test
+	void testAutocomplete() {
+		List<CountryTranslation> countries = countryRestController.findAllTranslationsByPrefix(PAGE_SIZE_3, "uni", "es");
+		assertEquals(countries.get(0).getCountry(), "Reino Unido");
+		countries = countryRestController.findAllTranslationsByPrefix(PAGE_SIZE_3, "ARABES", "es");
+		assertEquals(countries.get(0).getCountry(), "Emiratos Árabes Unidos");
+	}
+
+	@Test
+	void testInvalidLimit() throws Exception {
+		assertThrows(IllegalArgumentException.class, () -> countryRestController.findAllTranslationsByPrefix(-1, "uni", "es"));
+		assertEquals(mockMvc.perform(get("/v1/countries/translations/es/autocomplete").param("prefix", "uni").param("limit", "-1")).andReturn()
+				.getResponse().getStatus(), HttpStatus.BAD_REQUEST.value());
+		assertThrows(IllegalArgumentException.class, () -> countryRestController.findAllTranslationsByName(-1, "Alemania"));
+		assertEquals(mockMvc.perform(get("/v1/countries/translations/lookup").param("name", "Alemania").param("limit", "-1")).andReturn()
+				.getResponse().getStatus(), HttpStatus.BAD_REQUEST.value());
+	}
+
+	@Test
+	void testLookup() {
+		List<TranslationMatch> matches = countryRestController.findAllTranslationsByName(PAGE_SIZE_3, "Alemania");
+		assertEquals(matches.get(0).getCode(), "DE");
+		matches = countryRestController.findAllTranslationsByName(PAGE_SIZE_3, "Allemagn");
+		assertEquals(matches.get(0).getCode(), "DE");
+	}
+
+	@Test
+	void testNotModified() throws Exception {
+		MockHttpServletResponse response = mockMvc.perform(get("/v1/countries").param("filter", "alpha2Code eq BR")).andReturn().getResponse();
+		String eTag = response.getHeader(HttpHeaders.ETAG);
+		assertNotNull(eTag);
+		assertNotNull(response.getHeader(HttpHeaders.CACHE_CONTROL));
+		response = mockMvc.perform(get("/v1/countries").param("filter", "alpha2Code eq 'BR'").header(HttpHeaders.IF_NONE_MATCH, eTag)).andReturn()
+				.getResponse();
+		assertEquals(response.getStatus(), HttpStatus.NOT_MODIFIED.value());
+		assertEquals(response.getContentLength(), 0);
+	}
+
+	@Test
+	void testGzip() throws Exception {
+		byte[] body = mockMvc.perform(get("/v1/countries")).andReturn().getResponse().getContentAsByteArray();
+		MockHttpServletResponse response = mockMvc.perform(get("/v1/countries").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")).andReturn()
+				.getResponse();
+		assertEquals(response.getHeader(HttpHeaders.CONTENT_ENCODING), "gzip");
+		try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+			assertArrayEquals(StreamUtils.copyToByteArray(gzip), body);
+		}
+		// streamed on a miss, then compressed from the cache under the same ETag
+		response = mockMvc.perform(get("/v1/countries").param("filter", "region eq Asia").header(HttpHeaders.ACCEPT_ENCODING, "gzip")).andReturn()
+				.getResponse();
+		assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+		String eTag = response.getHeader(HttpHeaders.ETAG);
+		response = mockMvc.perform(get("/v1/countries").param("filter", "region eq Asia").header(HttpHeaders.ACCEPT_ENCODING, "gzip")).andReturn()
+				.getResponse();
+		assertEquals(response.getHeader(HttpHeaders.CONTENT_ENCODING), "gzip");
+		assertEquals(response.getHeader(HttpHeaders.ETAG), eTag);
+	}
+
+	@Test
+	void testBatch() throws Exception {
+		String queries = "[{\"resource\": \"countries\", \"filter\": \"alpha2Code eq BR\", \"includeProperties\": \"name\"},"
+				+ " {\"resource\": \"languages\", \"locale\": \"es\", \"filter\": \"code eq pt\"},"
+				+ " {\"resource\": \"planets\"}, {\"resource\": \"countries\", \"filter\": \"area gt\"},"
+				+ " {\"resource\": \"currencies\", \"locale\": \"es\"}, {\"resource\": \"locales\"},"
+				+ " {\"resource\": \"countries\", \"filter\": \"alpha2Code eq BR\", \"pageNumber\": null, \"pageSize\": null, \"includeProperties\": \"name\"}]";
+		MockHttpServletResponse response = mockMvc.perform(post("/v1/batch").contentType(MediaType.APPLICATION_JSON).content(queries)).andReturn()
+				.getResponse();
+		JsonNode results = objectMapper.readTree(response.getContentAsString(UTF_8));
+		assertEquals(results.size(), 7);
+		assertEquals(results.get(0).get("data").toString(), "[{\"name\":\"Brazil\"}]");
+		assertEquals(results.get(1).get("data").get(0).get("language").asText(), "portugués");
+		assertEquals(results.get(2).get("error").asText(), "Invalid resource.");
+		assertNotNull(results.get(3).get("error"));
+		assertEquals(results.get(4).get("error").asText(), "Unsupported translations.");
+		assertEquals(results.get(5).get("error").asText(), "Unsupported entities.");
+		assertEquals(results.get(6).get("data").toString(), "[{\"name\":\"Brazil\"}]");
+	}
+
+	@Test
+	void testFlag() throws Exception {
+		MockHttpServletResponse response = mockMvc.perform(get("/v1/countries/br/flag")).andReturn().getResponse();
+		assertEquals(response.getContentType(), MediaType.IMAGE_PNG_VALUE);
+		assertArrayEquals(response.getContentAsByteArray(), Files.readAllBytes(Paths.get("src/main/resources/v1/countries/flags/br.png")));
+		response = mockMvc.perform(get("/v1/countries/BR/flag").header(HttpHeaders.IF_NONE_MATCH, response.getHeader(HttpHeaders.ETAG))).andReturn()
+				.getResponse();
+		assertEquals(response.getStatus(), HttpStatus.NOT_MODIFIED.value());
+		assertEquals(mockMvc.perform(get("/v1/countries/xx/flag")).andReturn().getResponse().getStatus(), HttpStatus.NOT_FOUND.value());
+	}
+
+	@Test
+	void testFlagSprite() throws Exception {
+		MockHttpServletResponse response = mockMvc.perform(get("/v1/countries/flags/sprite.json").param("size", "16")).andReturn().getResponse();
+		JsonNode manifest = objectMapper.readTree(response.getContentAsString(UTF_8));
+		assertEquals(manifest.get("offsets").get("AE").toString(), "[16,0]");
+		String eTag = response.getHeader(HttpHeaders.ETAG);
+		response = mockMvc.perform(get("/v1/countries/flags/sprite.png").param("size", "16")).andReturn().getResponse();
+		assertEquals(response.getHeader(HttpHeaders.ETAG), eTag);
+		BufferedImage sprite = ImageIO.read(new ByteArrayInputStream(response.getContentAsByteArray()));
+		assertEquals(sprite.getWidth(), manifest.get("width").asInt());
+		BufferedImage flag = ImageIO.read(new ByteArrayInputStream(
+				mockMvc.perform(get("/v1/countries/br/flag").param("size", "16")).andReturn().getResponse().getContentAsByteArray()));
+		assertEquals(flag.getWidth(), 16);
+		assertThrows(IllegalArgumentException.class, () -> countryRestController.findFlagMapping("br", 20, null));
+		assertThrows(IllegalArgumentException.class, () -> FlagSet.render(Collections.singletonMap("XX", new Flag(new byte[] { 1, 2, 3 }, "", 0)), 16));
+	}
+
+	@Test
+	void testIncludeProperties() throws Exception {
+		String _response = mockMvc.perform(get("/v1/countries").param("pageSize", PAGE_SIZE_3.toString()).param("includeProperties", "currencies,numericCode"))
+				.andReturn().getResponse().getContentAsString(UTF_8);
+		_response = objectMapper.readTree(_response).get(0).toString();
 		assertTrue(_response.contains("\"currencies\""));
 		assertTrue(_response.contains("\"numericCode\""));
 		assertFalse(_response.contains("\"alpha3Code\""));
 	}
 
 	@Test
-	@SuppressWarnings("unchecked")
-	void testIgnoreProperties() throws IOException {
-		MappingJacksonValue jacksonValue = countryRestController.findAllMapping(FIRST_PAGE_INT, PAGE_SIZE_3, null, null, "currencies,numericCode");
-		String _response = objectMapper.writer(jacksonValue.getFilters()).writeValueAsString(((List<Country>) jacksonValue.getValue()).get(0));
+	void testNestedProperties() throws Exception {
+		String _response = mockMvc.perform(get("/v1/countries").param("pageSize", PAGE_SIZE_3.toString()).param("includeProperties", "name,currencies.code"))
+				.andReturn().getResponse().getContentAsString(UTF_8);
+		_response = objectMapper.readTree(_response).get(0).toString();
+		assertTrue(_response.contains("\"code\""));
+		assertFalse(_response.contains("\"symbol\""));
+		assertFalse(_response.contains("\"alpha3Code\""));
+		_response = mockMvc.perform(get("/v1/countries").param("pageSize", PAGE_SIZE_3.toString()).param("ignoreProperties", "currencies.code"))
+				.andReturn().getResponse().getContentAsString(UTF_8);
+		_response = objectMapper.readTree(_response).get(0).toString();
+		assertFalse(_response.contains("\"code\""));
+		assertTrue(_response.contains("\"symbol\""));
+		assertTrue(_response.contains("\"alpha3Code\""));
+		_response = mockMvc.perform(get("/v1/countries").param("pageSize", PAGE_SIZE_3.toString()).param("includeProperties", "regionalBlocs.acronym"))
+				.andReturn().getResponse().getContentAsString(UTF_8);
+		JsonNode regionalBloc = objectMapper.readTree(_response).get(0).get("regionalBlocs").get(0);
+		assertTrue(regionalBloc.has("acronym"));
+		assertFalse(regionalBloc.has("name"));
+	}
+
+	@Test
+	void testIgnoreProperties() throws Exception {
+		String _response = mockMvc.perform(get("/v1/countries").param("pageSize", PAGE_SIZE_3.toString()).param("ignoreProperties", "currencies,numericCode"))
+				.andReturn().getResponse().getContentAsString(UTF_8);
+		_response = objectMapper.readTree(_response).get(0).toString();
 		assertFalse(_response.contains("\"currencies\""));
 		assertFalse(_response.contains("\"numericCode\""));
 		assertTrue(_response.contains("\"alpha3Code\""));
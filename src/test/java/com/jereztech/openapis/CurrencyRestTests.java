@@ -19,17 +19,19 @@ package com.jereztech.openapis;
 import static com.jereztech.openapis.support.Constants.FIRST_PAGE_INT;
 import static com.jereztech.openapis.support.Constants.PAGE_NUMBER_2;
 import static com.jereztech.openapis.support.Constants.PAGE_SIZE_3;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 
-import java.io.IOException;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jereztech.openapis.v1.data.Currency;
@@ -39,11 +41,15 @@ import com.jereztech.openapis.v1.ws.CurrencyRestController;
  * @author Joel Jerez
  */
 @SpringBootTest
+@AutoConfigureMockMvc
 class CurrencyRestTests {
 
 	@Autowired
 	private CurrencyRestController currencyRestController;
 
+	@Autowired
+	private MockMvc mockMvc;
+
 	@Autowired
 	private ObjectMapper objectMapper;
 
@@ -63,20 +69,20 @@ class CurrencyRestTests {
 	}
 
 	@Test
-	@SuppressWarnings("unchecked")
-	void testIncludeProperties() throws IOException {
-		MappingJacksonValue jacksonValue = currencyRestController.findAllMapping(FIRST_PAGE_INT, PAGE_SIZE_3, null, "code,countryName", null);
-		String _response = objectMapper.writer(jacksonValue.getFilters()).writeValueAsString(((List<Currency>) jacksonValue.getValue()).get(0));
+	void testIncludeProperties() throws Exception {
+		String _response = mockMvc.perform(get("/v1/currencies").param("pageSize", PAGE_SIZE_3.toString()).param("includeProperties", "code,countryName"))
+				.andReturn().getResponse().getContentAsString(UTF_8);
+		_response = objectMapper.readTree(_response).get(0).toString();
 		assertTrue(_response.contains("\"code\""));
 		assertTrue(_response.contains("\"countryName\""));
 		assertFalse(_response.contains("\"countryAlpha3Code\""));
 	}
 
 	@Test
-	@SuppressWarnings("unchecked")
-	void testIgnoreProperties() throws IOException {
-		MappingJacksonValue jacksonValue = currencyRestController.findAllMapping(FIRST_PAGE_INT, PAGE_SIZE_3, null, null, "code,countryName");
-		String _response = objectMapper.writer(jacksonValue.getFilters()).writeValueAsString(((List<Currency>) jacksonValue.getValue()).get(0));
+	void testIgnoreProperties() throws Exception {
+		String _response = mockMvc.perform(get("/v1/currencies").param("pageSize", PAGE_SIZE_3.toString()).param("ignoreProperties", "code,countryName"))
+				.andReturn().getResponse().getContentAsString(UTF_8);
+		_response = objectMapper.readTree(_response).get(0).toString();
 		assertFalse(_response.contains("\"code\""));
 		assertFalse(_response.contains("\"countryName\""));
 		assertTrue(_response.contains("\"countryAlpha3Code\""));
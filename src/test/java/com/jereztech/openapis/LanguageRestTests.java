@@ -19,20 +19,23 @@ package com.jereztech.openapis;
 import static com.jereztech.openapis.support.Constants.FIRST_PAGE_INT;
 import static com.jereztech.openapis.support.Constants.PAGE_NUMBER_2;
 import static com.jereztech.openapis.support.Constants.PAGE_SIZE_3;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 
-import java.io.IOException;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.jereztech.openapis.v1.data.Country;
 import com.jereztech.openapis.v1.data.Language;
 import com.jereztech.openapis.v1.data.LanguageTranslation;
 import com.jereztech.openapis.v1.ws.LanguageRestController;
@@ -41,11 +44,15 @@ import com.jereztech.openapis.v1.ws.LanguageRestController;
  * @author Joel Jerez
  */
 @SpringBootTest
+@AutoConfigureMockMvc
 class LanguageRestTests {
 
 	@Autowired
 	private LanguageRestController languageRestController;
 
+	@Autowired
+	private MockMvc mockMvc;
+
 	@Autowired
 	private ObjectMapper objectMapper;
 
@@ -73,20 +80,28 @@ class LanguageRestTests {
 	}
 
 	@Test
-	@SuppressWarnings("unchecked")
-	void testIncludeProperties() throws IOException {
-		MappingJacksonValue jacksonValue = languageRestController.findAllMapping(FIRST_PAGE_INT, PAGE_SIZE_3, null, "countryName,localeAlpha2", null);
-		String _response = objectMapper.writer(jacksonValue.getFilters()).writeValueAsString(((List<Country>) jacksonValue.getValue()).get(0));
+	void testTranslationsCache() {
+		List<LanguageTranslation> languages = languageRestController.findAllTranslations(FIRST_PAGE_INT, PAGE_SIZE_3, null, "it");
+		assertSame(languageRestController.findAllTranslations(FIRST_PAGE_INT, PAGE_SIZE_3, null, "it").get(0), languages.get(0));
+		assertThrows(IllegalArgumentException.class, () -> languageRestController.findAllTranslations(FIRST_PAGE_INT, PAGE_SIZE_3, null, "xx"));
+		assertThrows(IllegalArgumentException.class, () -> languageRestController.findAllTranslations(FIRST_PAGE_INT, PAGE_SIZE_3, null, "../fr"));
+	}
+
+	@Test
+	void testIncludeProperties() throws Exception {
+		String _response = mockMvc.perform(get("/v1/languages").param("pageSize", PAGE_SIZE_3.toString()).param("includeProperties", "countryName,localeAlpha2"))
+				.andReturn().getResponse().getContentAsString(UTF_8);
+		_response = objectMapper.readTree(_response).get(0).toString();
 		assertTrue(_response.contains("\"countryName\""));
 		assertTrue(_response.contains("\"localeAlpha2\""));
 		assertFalse(_response.contains("\"name\""));
 	}
 
 	@Test
-	@SuppressWarnings("unchecked")
-	void testIgnoreProperties() throws IOException {
-		MappingJacksonValue jacksonValue = languageRestController.findAllMapping(FIRST_PAGE_INT, PAGE_SIZE_3, null, null, "countryName,localeAlpha2");
-		String _response = objectMapper.writer(jacksonValue.getFilters()).writeValueAsString(((List<Country>) jacksonValue.getValue()).get(0));
+	void testIgnoreProperties() throws Exception {
+		String _response = mockMvc.perform(get("/v1/languages").param("pageSize", PAGE_SIZE_3.toString()).param("ignoreProperties", "countryName,localeAlpha2"))
+				.andReturn().getResponse().getContentAsString(UTF_8);
+		_response = objectMapper.readTree(_response).get(0).toString();
 		assertFalse(_response.contains("\"countryName\""));
 		assertFalse(_response.contains("\"localeAlpha2\""));
 		assertTrue(_response.contains("\"name\""));
@@ -19,20 +19,23 @@ package com.jereztech.openapis;
 import static com.jereztech.openapis.support.Constants.FIRST_PAGE_INT;
 import static com.jereztech.openapis.support.Constants.PAGE_NUMBER_2;
 import static com.jereztech.openapis.support.Constants.PAGE_SIZE_3;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 
-import java.io.IOException;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.jereztech.openapis.v1.data.Currency;
 import com.jereztech.openapis.v1.data.LocaleTranslation;
 import com.jereztech.openapis.v1.ws.LocaleRestController;
 
@@ -40,11 +43,15 @@ import com.jereztech.openapis.v1.ws.LocaleRestController;
  * @author Joel Jerez
  */
 @SpringBootTest
+@AutoConfigureMockMvc
 class LocaleRestTests {
 
 	@Autowired
 	private LocaleRestController localeRestController;
 
+	@Autowired
+	private MockMvc mockMvc;
+
 	@Autowired
 	private ObjectMapper objectMapper;
 
@@ -72,19 +79,30 @@ class LocaleRestTests {
 	}
 
 	@Test
-	@SuppressWarnings("unchecked")
-	void testIncludeProperties() throws IOException {
-		MappingJacksonValue jacksonValue = localeRestController.findAllTranslationsMapping("en", FIRST_PAGE_INT, PAGE_SIZE_3, null, "locale", null);
-		String _response = objectMapper.writer(jacksonValue.getFilters()).writeValueAsString(((List<Currency>) jacksonValue.getValue()).get(0));
+	void testDelta() throws Exception {
+		long version = localeRestController.getDatasetVersion();
+		assertThrows(IllegalArgumentException.class, () -> localeRestController.findAllSince(version, null));
+		assertThrows(IllegalArgumentException.class, () -> localeRestController.findAllSince(version - 1, null));
+		assertEquals(mockMvc.perform(get("/v1/locales").param("since", String.valueOf(version - 1))).andReturn().getResponse().getStatus(),
+				HttpStatus.BAD_REQUEST.value());
+		assertEquals(mockMvc.perform(get("/v1/locales/translations/en").param("since", String.valueOf(version))).andReturn().getResponse().getStatus(),
+				HttpStatus.OK.value());
+	}
+
+	@Test
+	void testIncludeProperties() throws Exception {
+		String _response = mockMvc.perform(get("/v1/locales/translations/en").param("pageSize", PAGE_SIZE_3.toString()).param("includeProperties", "locale"))
+				.andReturn().getResponse().getContentAsString(UTF_8);
+		_response = objectMapper.readTree(_response).get(0).toString();
 		assertTrue(_response.contains("\"locale\""));
 		assertFalse(_response.contains("\"code\""));
 	}
 
 	@Test
-	@SuppressWarnings("unchecked")
-	void testIgnoreProperties() throws IOException {
-		MappingJacksonValue jacksonValue = localeRestController.findAllTranslationsMapping("en", FIRST_PAGE_INT, PAGE_SIZE_3, null, null, "locale");
-		String _response = objectMapper.writer(jacksonValue.getFilters()).writeValueAsString(((List<Currency>) jacksonValue.getValue()).get(0));
+	void testIgnoreProperties() throws Exception {
+		String _response = mockMvc.perform(get("/v1/locales/translations/en").param("pageSize", PAGE_SIZE_3.toString()).param("ignoreProperties", "locale"))
+				.andReturn().getResponse().getContentAsString(UTF_8);
+		_response = objectMapper.readTree(_response).get(0).toString();
 		assertFalse(_response.contains("\"locale\""));
 		assertTrue(_response.contains("\"code\""));
 	}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import com.jereztech.openapis.v1.data.Country;
+import com.jereztech.openapis.v1.data.CountryTranslation;
+import com.jereztech.openapis.v1.data.Currency;
+
+/**
+ * @author Joel Jerez
+ */
+class ProxyAccessorTests {
+
+	@Test
+	void testProxify() {
+		Country country = new Country();
+		country.setName("Spain");
+		country.setArea(505992);
+		assertEquals(ProxyAccessor.proxify(country, "name"), "Spain");
+		assertEquals(ProxyAccessor.proxify(country, "NAME"), "Spain");
+		assertEquals((int) ProxyAccessor.proxify(country, "area"), 505992);
+		assertNull(ProxyAccessor.proxify(country, "capital.name"));
+		assertNull(ProxyAccessor.proxify(country, "name.length"));
+		assertNull(ProxyAccessor.proxify(country, "unknown"));
+		assertNull(ProxyAccessor.proxify(null, "name"));
+	}
+
+	@Test
+	void testAccessor() {
+		Accessor accessor = ProxyAccessor.accessor("name");
+		Country country = new Country();
+		country.setName("Spain");
+		CountryTranslation translation = new CountryTranslation();
+		assertEquals(accessor.get(country), "Spain");
+		// rebound to the class of each entity
+		assertNull(accessor.get(translation));
+		assertEquals(accessor.get(country), "Spain");
+		assertNull(ProxyAccessor.accessor(" ").get(country));
+	}
+
+	@Test
+	void testFinalFields() {
+		Currency currency = new Currency("EUR", "Euro", "€", 978, null, null);
+		assertEquals(ProxyAccessor.proxify(currency, "code"), "EUR");
+		assertEquals((int) ProxyAccessor.proxify(currency, "number"), 978);
+		assertNull(ProxyAccessor.proxify(currency, "serialVersionUID"));
+	}
+
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.support.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.InputStream;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jereztech.openapis.v1.data.Country;
+
+/**
+ * Compares scanning the countries with the compiled filter against parsing
+ * the expression for every country, as the filters were evaluated before they
+ * were compiled. It only runs on demand:
+ * 
+ * <pre>
+ * 
+ * Example: 
+ * {@code mvn test -Dtest=FilterBenchmark -Dbenchmark=true}
+ * </pre>
+ * 
+ * @author Joel Jerez
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FilterBenchmark {
+
+	private static final String FILTER = "region eq Europe and subregion eq 'Northern Europe'";
+	private static final int WARMUP_SCANS = 5_000;
+	private static final int MEASURED_SCANS = 5_000;
+
+	@Test
+	void benchmark() throws Exception {
+		List<Country> countries;
+		try (InputStream in = getClass().getClassLoader().getResourceAsStream("v1/countries/countries.json")) {
+			countries = new ObjectMapper().readValue(in, new ObjectMapper().getTypeFactory().constructCollectionType(List.class, Country.class));
+		}
+		assertEquals(scanParsed(countries), scanCompiled(countries));
+		double parsed = measure(() -> scanParsed(countries));
+		double compiled = measure(() -> scanCompiled(countries));
+		System.out.printf("%d countries, '%s': parsed per country %.1f us/scan, compiled %.1f us/scan%n", countries.size(), FILTER, parsed,
+				compiled);
+	}
+
+	private static int scanParsed(List<Country> countries) {
+		int matches = 0;
+		for (Country country : countries) {
+			if (new FilterParser(FILTER).parse().test(country)) {
+				matches++;
+			}
+		}
+		return matches;
+	}
+
+	private static int scanCompiled(List<Country> countries) {
+		Filter filter = FilterCompiler.compile(FILTER);
+		int matches = 0;
+		for (Country country : countries) {
+			if (filter.test(country)) {
+				matches++;
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * The average time of a scan in microseconds, after the warm up.
+	 */
+	private static double measure(Scan scan) {
+		long sink = 0;
+		for (int i = 0; i < WARMUP_SCANS; i++) {
+			sink += scan.run();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < MEASURED_SCANS; i++) {
+			sink += scan.run();
+		}
+		double micros = (System.nanoTime() - start) / 1_000.0 / MEASURED_SCANS;
+		return sink > 0 ? micros : Double.NaN;
+	}
+
+	@FunctionalInterface
+	private interface Scan {
+
+		int run();
+
+	}
+
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.support.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.jereztech.openapis.v1.data.Country;
+
+/**
+ * @author Joel Jerez
+ */
+class FilterCompilerTests {
+
+	@Test
+	void testCache() {
+		assertSame(FilterCompiler.compile(" region eq Europe "), FilterCompiler.compile("region eq Europe"));
+		assertSame(FilterCompiler.compile(null), Filter.ALL);
+		assertSame(FilterCompiler.compile(" "), Filter.ALL);
+	}
+
+	@Test
+	void testCanonicalForm() {
+		assertEquals(FilterCompiler.compile("subregion eq 'Northern Europe' and region eq Europe").toString(),
+				FilterCompiler.compile("region eq Europe and subregion eq 'Northern Europe'").toString());
+	}
+
+	@Test
+	void testEvaluation() {
+		Country country = new Country();
+		country.setName("Spain");
+		country.setRegion("Europe");
+		country.setArea(505992);
+		country.setBorders(new String[] { "AND", "FRA", "GIB", "PRT", "MAR" });
+		assertTrue(FilterCompiler.compile("region eq Europe and area gt 500000").test(country));
+		assertTrue(FilterCompiler.compile("tolower(name) eq 'spain' or area lt 0").test(country));
+		assertTrue(FilterCompiler.compile("borders eq FRA and not startswith(name, 'F')").test(country));
+		assertTrue(FilterCompiler.compile("region in (Asia, Europe) and capital eq null").test(country));
+		assertFalse(FilterCompiler.compile("region ne Europe").test(country));
+		assertFalse(FilterCompiler.compile("borders eq ESP").test(country));
+	}
+
+	@Test
+	void testInvalidFilters() {
+		assertThrows(IllegalArgumentException.class, () -> FilterCompiler.compile("area gt"));
+		assertThrows(IllegalArgumentException.class, () -> FilterCompiler.compile("region eq Europe and"));
+		assertThrows(IllegalArgumentException.class, () -> FilterCompiler.compile("(region eq Europe"));
+		assertThrows(IllegalArgumentException.class, () -> FilterCompiler.compile("contains(name, 1) eq true"));
+	}
+
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.jereztech.openapis.support.filter.AndFilter;
+import com.jereztech.openapis.support.filter.Filter;
+import com.jereztech.openapis.support.filter.FilterCompiler;
+import com.jereztech.openapis.v1.data.Country;
+
+/**
+ * @author Joel Jerez
+ */
+class QueryPlannerTests {
+
+	private final IndexedList<Country> countries = new IndexedList<>(Arrays.asList(country("ES", "Europe", "Southern Europe", 505992),
+			country("NO", "Europe", "Northern Europe", 323802), country("SE", "Europe", "Northern Europe", 450295),
+			country("BR", "Americas", "South America", 8515767)), "alpha2Code", "region", "subregion", "area");
+
+	@Test
+	void testLookup() {
+		QueryPlan<Country> plan = QueryPlanner.plan(countries, FilterCompiler.compile("alpha2Code eq BR"));
+		assertTrue(plan.isExact());
+		assertEquals(plan.getCandidates().size(), 1);
+		assertSame(plan.getCandidates().get(0), countries.getRows().get(3));
+		assertTrue(QueryPlanner.plan(countries, FilterCompiler.compile("alpha2Code eq XX")).getCandidates().isEmpty());
+		// only the string attributes are indexed
+		assertNull(countries.lookup("area", "505992"));
+		plan = QueryPlanner.plan(countries, FilterCompiler.compile("tolower(alpha2Code) eq br"));
+		assertFalse(plan.isExact());
+		assertEquals(plan.getCandidates().size(), countries.size());
+	}
+
+	@Test
+	void testSelectivity() {
+		QueryPlan<Country> plan = QueryPlanner.plan(countries, FilterCompiler.compile("region eq Europe and subregion eq 'Northern Europe'"));
+		// driven by the smaller posting list
+		assertEquals(plan.getCandidates().size(), 2);
+		assertEquals(plan.getResidual().toString(), "region eq 'Europe'");
+		plan = QueryPlanner.plan(countries, FilterCompiler.compile("area gt 400000 and name eq SE and region eq Europe"));
+		assertEquals(plan.getCandidates().size(), 3);
+		List<Filter> residual = ((AndFilter) plan.getResidual()).getTerms();
+		// the most selective term is checked first
+		assertEquals(residual.get(0).toString(), "name eq 'SE'");
+		assertEquals(residual.get(1).toString(), "area gt '400000'");
+	}
+
+	@Test
+	void testArrayCardinality() {
+		List<Country> rows = Arrays.asList(country("ES", "Europe", "Southern Europe", 505992), country("PT", "Europe", "Southern Europe", 92212));
+		rows.get(0).setBorders(new String[] { "AD", "FR", "GI", "PT", "MA" });
+		rows.get(1).setBorders(new String[] { "ES" });
+		// the elements are counted, not the arrays
+		assertEquals(new IndexedList<>(rows).cardinality("borders"), 6);
+		assertEquals(new IndexedList<>(rows).cardinality("capital"), 0);
+	}
+
+	private static Country country(String alpha2Code, String region, String subregion, int area) {
+		Country country = new Country();
+		country.setAlpha2Code(alpha2Code);
+		country.setName(alpha2Code);
+		country.setRegion(region);
+		country.setSubregion(subregion);
+		country.setArea(area);
+		return country;
+	}
+
+}
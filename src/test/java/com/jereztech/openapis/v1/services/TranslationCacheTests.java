@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import static com.jereztech.openapis.support.Constants.FIRST_PAGE_INT;
+import static com.jereztech.openapis.support.Constants.PAGE_SIZE_3;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.jereztech.openapis.v1.data.LanguageTranslation;
+
+/**
+ * @author Joel Jerez
+ */
+@SpringBootTest(properties = "openapis.cache.translations.max-bytes=4194304")
+class TranslationCacheTests {
+
+	@Autowired
+	private LanguageService languageService;
+
+	@Autowired
+	private LocaleService localeService;
+
+	@Test
+	void testScan() {
+		List<LanguageTranslation> languages = languageService.findAllTranslations(FIRST_PAGE_INT, PAGE_SIZE_3, null, "it");
+		// the tables of all the locales exceed the budget of the cache
+		languageService.findAllTranslationsByLocales(null, "*");
+		localeService.findAllTranslationsByLocales(null, "*");
+		assertSame(languageService.findAllTranslations(FIRST_PAGE_INT, PAGE_SIZE_3, null, "it").get(0), languages.get(0));
+	}
+
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Joel Jerez
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ ******************************************************************************/
+package com.jereztech.openapis.v1.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.jereztech.openapis.support.ProxyAccessor;
+import com.jereztech.openapis.v1.data.CountryTranslation;
+
+/**
+ * @author Joel Jerez
+ */
+class TranslationSnapshotTests {
+
+	private static final String FINGERPRINT = "fingerprint";
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void testRead() throws IOException {
+		Path path = write(directory.resolve("snapshots"));
+		assertEquals(TranslationSnapshot.read(path, FINGERPRINT).getLocales().get("pt").getTable().getName(0), "Brasil");
+		assertNull(TranslationSnapshot.read(path, "other"));
+		assertEquals(PosixFilePermissions.toString(Files.getPosixFilePermissions(path.getParent())), "rwx------");
+	}
+
+	@Test
+	void testCorrupted() throws IOException {
+		Path path = write(directory.resolve("snapshots"));
+		byte[] bytes = Files.readAllBytes(path);
+		// the length of the fingerprint
+		ByteBuffer.wrap(bytes).putInt(2 * Integer.BYTES, Integer.MAX_VALUE);
+		Files.write(path, bytes);
+		assertNull(TranslationSnapshot.read(path, FINGERPRINT));
+		Files.write(path, new byte[] { 1, 2, 3 });
+		assertNull(TranslationSnapshot.read(path, FINGERPRINT));
+	}
+
+	@Test
+	void testShared() throws IOException {
+		Path path = write(directory.resolve("snapshots"));
+		Files.setPosixFilePermissions(path.getParent(), PosixFilePermissions.fromString("rwxrwxrwx"));
+		assertNull(TranslationSnapshot.read(path, FINGERPRINT));
+	}
+
+	private static Path write(Path directory) throws IOException {
+		CountryTranslation translation = new CountryTranslation();
+		translation.setAlpha2Code("BR");
+		translation.setCountry("Brasil");
+		TranslationTable.Dictionary.Builder builder = new TranslationTable.Dictionary.Builder();
+		ByteBuffer columns = TranslationTable.encode(Collections.singletonList(translation), ProxyAccessor.accessor("alpha2Code"),
+				ProxyAccessor.accessor("country"), builder);
+		TranslationTable.Dictionary dictionary = builder.build();
+		TranslationTable table = new TranslationTable(dictionary, columns);
+		TranslationsFile file = new TranslationsFile("pt", 1, "version", table);
+		Path path = directory.resolve("countries.snapshot");
+		new TranslationSnapshot(dictionary, Collections.singletonMap("pt", file)).write(path, FINGERPRINT);
+		return path;
+	}
+
+}